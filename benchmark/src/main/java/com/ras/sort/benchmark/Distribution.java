@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import java.util.Random;
+
+/**
+ * The shapes of input data the benchmarks are run against. Every distribution is generated from a fixed seed so runs
+ * on different machines sort exactly the same values.
+ */
+public enum Distribution {
+    RANDOM {
+        @Override
+        int[] generate(int size, Random random) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++)
+                values[i] = random.nextInt();
+            return values;
+        }
+    },
+    SORTED {
+        @Override
+        int[] generate(int size, Random random) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++)
+                values[i] = i;
+            return values;
+        }
+    },
+    REVERSED {
+        @Override
+        int[] generate(int size, Random random) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++)
+                values[i] = size - i;
+            return values;
+        }
+    },
+    ORGAN_PIPE {
+        @Override
+        int[] generate(int size, Random random) {
+            //Ascending up to the middle then descending back down
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++)
+                values[i] = Math.min(i, size - 1 - i);
+            return values;
+        }
+    },
+    FEW_DISTINCT {
+        @Override
+        int[] generate(int size, Random random) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++)
+                values[i] = random.nextInt(FEW_DISTINCT_VALUES);
+            return values;
+        }
+    },
+    ALL_EQUAL {
+        @Override
+        int[] generate(int size, Random random) {
+            return new int[size];
+        }
+    };
+
+    private static final int FEW_DISTINCT_VALUES = 16;
+
+    abstract int[] generate(int size, Random random);
+}
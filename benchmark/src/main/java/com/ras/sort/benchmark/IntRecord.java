@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import com.ras.sort.bucket.IIntBucketProvider;
+import com.ras.sort.bucket.IntBucket;
+
+/**
+ * The primitive counterpart of {@link Record} used to drive {@link com.ras.sort.SortUtility#intBucket(java.util.List)}.
+ * The bucket of a record is its value, so the bucket benchmarks sort the same keys as the other benchmarks.
+ */
+public final class IntRecord implements IIntBucketProvider {
+    private final int m_value;
+
+    public IntRecord(int value) {
+        m_value = value;
+    }
+
+    public int getValue() {
+        return m_value;
+    }
+
+    @Override
+    public IntBucket getBucket() {
+        return new IntBucket(m_value);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The list implementations the benchmarks sort. Each call to {@link #copyOf(Object[])} returns a fresh list so the
+ * benchmarks never sort data that a previous invocation already sorted.
+ */
+public enum ListType {
+    ARRAY_LIST {
+        @Override
+        <T> List<T> copyOf(T[] source) {
+            return new ArrayList<T>(Arrays.asList(source));
+        }
+    },
+    LINKED_LIST {
+        @Override
+        <T> List<T> copyOf(T[] source) {
+            return new LinkedList<T>(Arrays.asList(source));
+        }
+    },
+    ARRAYS_AS_LIST {
+        @Override
+        <T> List<T> copyOf(T[] source) {
+            return Arrays.asList(source.clone());
+        }
+    };
+
+    abstract <T> List<T> copyOf(T[] source);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import com.ras.sort.SortUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SortUtility#bubbleSort(java.util.List)} and {@link SortUtility#insertionSort(java.util.List)}. The
+ * sizes stop at 1e4 because both algorithms are O(n^2); larger sizes can still be requested on the command line with
+ * -p size=...
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class QuadraticSortBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param
+    public Distribution distribution;
+
+    @Param
+    public ListType listType;
+
+    private Integer[] m_values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] values = distribution.generate(size, new Random(SortUtilityBenchmark.SEED));
+
+        m_values = new Integer[size];
+        for (int i = 0; i < size; i++)
+            m_values[i] = Integer.valueOf(values[i]);
+    }
+
+    @Benchmark
+    public List<Integer> bubbleSort() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.bubbleSort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> insertionSort() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.insertionSort(list);
+        return list;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import com.ras.sort.bucket.Bucket;
+import com.ras.sort.bucket.IBucketProvider;
+
+import java.util.Comparator;
+
+/**
+ * A minimal record used to drive {@link com.ras.sort.SortUtility#bucket(java.util.List, java.util.Comparator)}. The
+ * bucket of a record is its value, so the bucket benchmarks sort the same keys as the other benchmarks.
+ */
+public final class Record implements IBucketProvider<Integer> {
+    public static final Comparator<Bucket<Integer>> BUCKET_COMPARATOR = new Comparator<Bucket<Integer>>() {
+        @Override
+        public int compare(Bucket<Integer> o1, Bucket<Integer> o2) {
+            return o1.getBucketItem(0).compareTo(o2.getBucketItem(0));
+        }
+    };
+
+    private final Integer m_value;
+
+    public Record(Integer value) {
+        m_value = value;
+    }
+
+    public Integer getValue() {
+        return m_value;
+    }
+
+    @Override
+    public Bucket<Integer> getBucket() {
+        return new Bucket<Integer>(m_value);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.benchmark;
+
+import com.ras.sort.CountHistogram;
+import com.ras.sort.EnumSort;
+import com.ras.sort.SortAlgorithm;
+import com.ras.sort.SortUtility;
+import com.ras.sort.key.IIntKeyExtractor;
+import com.ras.sort.key.IKeyExtractor;
+import com.ras.sort.record.RecordKeyType;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every in-memory sort algorithm of {@link SortUtility} and {@link EnumSort} with at least O(n log(n))
+ * behaviour across list sizes, input distributions and list implementations. Each algorithm is measured through one
+ * entry point: overloads that only differ in key type, comparator, listener or workspace run the same kernel and are
+ * not measured separately, and neither is {@link SortUtility#mergeSortedBatch(List, Collection)}.
+ * {@link QuadraticSortBenchmark} covers the quadratic algorithms separately so they are not run against inputs they
+ * can never finish.
+ *
+ * Each benchmark copies the unsorted source into a new list, array or buffer before sorting it. {@link #copyOnly()}
+ * measures the list copy alone so it can be subtracted from the other results. The array and buffer copies are a
+ * single bulk copy and cost far less.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortUtilityBenchmark {
+    static final long SEED = 0x5EED5EEDL;
+    //Each record of the buffer benchmark is an int key followed by an int payload
+    private static final int RECORD_WIDTH = 8;
+
+    private static final IKeyExtractor<Record, Integer> RECORD_KEY = new IKeyExtractor<Record, Integer>() {
+        @Override
+        public Integer getKey(Record item) {
+            return item.getValue();
+        }
+    };
+
+    private static final IIntKeyExtractor<Record> RECORD_INT_KEY = new IIntKeyExtractor<Record>() {
+        @Override
+        public int getKey(Record item) {
+            return item.getValue().intValue();
+        }
+    };
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public Distribution distribution;
+
+    @Param
+    public ListType listType;
+
+    private int[] m_primitives;
+    private Integer[] m_values;
+    private Record[] m_records;
+    private IntRecord[] m_intRecords;
+    private DayOfWeek[] m_days;
+    private byte[] m_recordBytes;
+    private List<Integer> m_orderedUniques;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] values = distribution.generate(size, new Random(SEED));
+
+        m_primitives = values;
+        m_values = new Integer[size];
+        m_records = new Record[size];
+        m_intRecords = new IntRecord[size];
+        m_days = new DayOfWeek[size];
+        ByteBuffer recordBuffer = ByteBuffer.allocate(size * RECORD_WIDTH);
+        DayOfWeek[] days = DayOfWeek.values();
+        TreeSet<Integer> uniques = new TreeSet<Integer>();
+        for (int i = 0; i < size; i++) {
+            m_values[i] = Integer.valueOf(values[i]);
+            m_records[i] = new Record(m_values[i]);
+            m_intRecords[i] = new IntRecord(values[i]);
+            m_days[i] = days[Math.floorMod(values[i], days.length)];
+            recordBuffer.putInt(values[i]).putInt(i);
+            uniques.add(m_values[i]);
+        }
+        m_recordBytes = recordBuffer.array();
+        m_orderedUniques = new ArrayList<Integer>(uniques);
+    }
+
+    @Benchmark
+    public List<Integer> copyOnly() {
+        return listType.copyOf(m_values);
+    }
+
+    @Benchmark
+    public List<Integer> merge() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.merge(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> count() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.count(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> parallelCount() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.parallelCount(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> countOrderedUniques() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.count(list, m_orderedUniques);
+        return list;
+    }
+
+    @Benchmark
+    public List<Record> bucket() {
+        List<Record> list = listType.copyOf(m_records);
+        SortUtility.bucket(list, Record.BUCKET_COMPARATOR);
+        return list;
+    }
+
+    @Benchmark
+    public List<Record> parallelBucket() {
+        List<Record> list = listType.copyOf(m_records);
+        SortUtility.parallelBucket(list, Record.BUCKET_COMPARATOR);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> quickSort() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.quickSort(list, 0, list.size() - 1);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> parallelQuickSort() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.parallelQuickSort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> selectMedian() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.select(list, list.size() / 2);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> partialSortHundred() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.partialSort(list, Math.min(100, list.size()));
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> topKHundred() {
+        return SortUtility.topK(Arrays.asList(m_values).iterator(), 100);
+    }
+
+    @Benchmark
+    public List<Integer> stableCount() {
+        List<Integer> list = listType.copyOf(m_values);
+        SortUtility.stableCount(list);
+        return list;
+    }
+
+    @Benchmark
+    public CountHistogram<Integer> countHistogram() {
+        return SortUtility.countHistogram(Arrays.asList(m_values));
+    }
+
+    @Benchmark
+    public List<DayOfWeek> enumCount() {
+        List<DayOfWeek> list = listType.copyOf(m_days);
+        EnumSort.count(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Record> msdBucket() {
+        List<Record> list = listType.copyOf(m_records);
+        SortUtility.msdBucket(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<IntRecord> intBucket() {
+        List<IntRecord> list = listType.copyOf(m_intRecords);
+        SortUtility.intBucket(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Record> sortByKey() {
+        List<Record> list = listType.copyOf(m_records);
+        SortUtility.sortByKey(list, RECORD_KEY);
+        return list;
+    }
+
+    @Benchmark
+    public List<Record> radixByInt() {
+        List<Record> list = listType.copyOf(m_records);
+        SortUtility.radixByInt(list, RECORD_INT_KEY);
+        return list;
+    }
+
+    /**
+     * @return the algorithm chosen, so the selection is part of the result as well as the sort
+     */
+    @Benchmark
+    public SortAlgorithm autoSort() {
+        return SortUtility.sort(listType.copyOf(m_values));
+    }
+
+    @Benchmark
+    public int[] countPrimitive() {
+        int[] array = m_primitives.clone();
+        SortUtility.count(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] radixPrimitive() {
+        int[] array = m_primitives.clone();
+        SortUtility.radix(array);
+        return array;
+    }
+
+    @Benchmark
+    public ByteBuffer quickSortRecords() {
+        ByteBuffer buffer = ByteBuffer.wrap(m_recordBytes.clone());
+        SortUtility.quickSort(buffer, RECORD_WIDTH, 0, RecordKeyType.INT);
+        return buffer;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.bucket.*;
+import com.ras.sort.metrics.ISortListener;
+import com.ras.sort.metrics.SortPhase;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A count then scatter bucket sort. The first pass gives every element the dense index of its bucket in a
+ * {@link CountTable} while counting the bucket sizes, prefix sums over the sorted buckets give the first output index
+ * of each bucket, and the second pass scatters the elements into a single output array in their original order.
+ */
+final class BucketSort {
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>() {
+        @Override
+        public int compare(Object o1, Object o2) {
+            return ((Comparable<Object>) o1).compareTo(o2);
+        }
+    };
+
+    private BucketSort() {
+    }
+
+    static <E extends IBucketProvider<T>, T> void sort(List<E> list, Comparator<Bucket<T>> bucketComparator) {
+        sort(list, bucketComparator, ISortListener.NONE);
+    }
+
+    static <E extends IBucketProvider<T>, T> void sort(List<E> list, Comparator<Bucket<T>> bucketComparator, ISortListener listener) {
+        sort(list, bucketComparator, listener, new SortWorkspace());
+    }
+
+    static <E extends IBucketProvider<T>, T> void sort(List<E> list, Comparator<Bucket<T>> bucketComparator, ISortListener listener,
+                                                       SortWorkspace workspace) {
+        sort(list, new IBucketGetter<E, Bucket<T>>() {
+            @Override
+            public Bucket<T> getBucket(E item) {
+                return item.getBucket();
+            }
+        }, bucketComparator, listener, workspace);
+    }
+
+    static <E extends IIntBucketProvider> void sortInt(List<E> list, ISortListener listener) {
+        sort(list, new IBucketGetter<E, IntBucket>() {
+            @Override
+            public IntBucket getBucket(E item) {
+                return item.getBucket();
+            }
+        }, null, listener, new SortWorkspace());
+    }
+
+    static <E extends ILongBucketProvider> void sortLong(List<E> list, ISortListener listener) {
+        sort(list, new IBucketGetter<E, LongBucket>() {
+            @Override
+            public LongBucket getBucket(E item) {
+                return item.getBucket();
+            }
+        }, null, listener, new SortWorkspace());
+    }
+
+    /**
+     * @param bucketComparator the order of the buckets or null to use their natural ordering
+     */
+    @SuppressWarnings("unchecked")
+    private static <E, K> void sort(List<E> list, IBucketGetter<E, K> getter, Comparator<? super K> bucketComparator,
+                                    ISortListener listener, SortWorkspace workspace) {
+        Comparator<Object> comparator = CountingComparator.wrap(
+                bucketComparator == null ? NATURAL_ORDER : (Comparator<Object>) bucketComparator, listener);
+        int length = list.size();
+        try {
+            listener.phaseStarted(SortPhase.COPY);
+            Object[] items = workspace.items(length);
+            ListArrays.copyInto(list, items);
+            listener.phaseFinished(SortPhase.COPY);
+            if (length < SmallSort.INSERTION_SORT_THRESHOLD) {
+                //Too few items to be worth hashing, sort the buckets directly and carry the items along
+                listener.phaseStarted(SortPhase.SORT);
+                Object[] buckets = workspace.keys(length);
+                for (int i = 0; i < length; i++)
+                    buckets[i] = getter.getBucket((E) items[i]);
+
+                listener.moved(SmallSort.insertionSort(buckets, items, comparator, 0, length - 1));
+                listener.phaseFinished(SortPhase.SORT);
+                listener.phaseStarted(SortPhase.REWRITE);
+                ListArrays.writeBack(list, 0, items, length);
+                listener.phaseFinished(SortPhase.REWRITE);
+                return;
+            }
+
+            listener.phaseStarted(SortPhase.COUNT);
+            CountTable<K> counts = workspace.counts();
+            int[] bucketIndexes = workspace.indexes(length);
+            for (int i = 0; i < length; i++) {
+                int index = counts.add(getter.getBucket((E) items[i]));
+                counts.increment(index);
+                bucketIndexes[i] = index;
+            }
+            listener.phaseFinished(SortPhase.COUNT);
+            listener.distinctKeys(counts.size());
+
+            listener.phaseStarted(SortPhase.KEY_SORT);
+            int keyCount = counts.size();
+            Object[] keys = workspace.keys(keyCount);
+            counts.copyKeys(keys);
+            Arrays.sort(keys, 0, keyCount, comparator);
+            listener.phaseFinished(SortPhase.KEY_SORT);
+
+            listener.phaseStarted(SortPhase.REWRITE);
+            //offsets[index] is the next output index of the bucket with that dense index
+            int[] offsets = workspace.offsets(keyCount);
+            int offset = 0;
+            for (int i = 0; i < keyCount; i++) {
+                int index = counts.indexOf(keys[i]);
+                offsets[index] = offset;
+                offset += counts.getCount(index);
+            }
+
+            Object[] sorted = workspace.sorted(length);
+            for (int i = 0; i < length; i++)
+                sorted[offsets[bucketIndexes[i]]++] = items[i];
+
+            ListArrays.writeBack(list, 0, sorted, length);
+            listener.moved(length);
+            listener.phaseFinished(SortPhase.REWRITE);
+        }
+        finally {
+            //A failed sort must not leave its keys in the shared table for the next sort to find
+            workspace.release(length);
+        }
+    }
+
+    private static interface IBucketGetter<E, K> {
+        public K getBucket(E item);
+    }
+}
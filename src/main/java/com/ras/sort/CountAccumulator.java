@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Counts values as they arrive so a {@link CountHistogram} can be built from data that is streamed rather than held
+ * in a list. Only the unique values and their counts are kept. {@link #build()} may be called at any point to get
+ * the histogram of everything added so far, and adding may continue afterwards.
+ *
+ * All values that are considered the same must have the same {@link Object#hashCode()}, the same as
+ * {@link SortUtility#count(java.util.List)}. Counts are longs, so a stream may repeat a value more than
+ * {@link Integer#MAX_VALUE} times. An accumulator is not thread safe.
+ */
+public final class CountAccumulator<T> {
+    private final Comparator<? super T> m_comparator;
+    private final CountTable<T> m_keys = new CountTable<T>(0, false);
+    //m_counts[index] is the count of the key with that dense index in m_keys
+    private long[] m_counts = new long[16];
+
+    /**
+     * Creates an accumulator that orders the values by their natural ordering, so they must implement
+     * {@link Comparable}.
+     */
+    public CountAccumulator() {
+        this(null);
+    }
+
+    /**
+     * @param comparator the order of the values in the histogram or null to use their natural ordering
+     */
+    public CountAccumulator(Comparator<? super T> comparator) {
+        m_comparator = comparator;
+    }
+
+    public void add(T value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds the value count times, for streams that are already partly aggregated.
+     * @param value the value to count
+     * @param count how many times the value occurred, where zero leaves the accumulator unchanged
+     */
+    public void add(T value, long count) {
+        if (count < 0)
+            throw new IllegalArgumentException("count cannot be negative but was " + count + ".");
+        else if (count == 0)
+            return;
+
+        int index = m_keys.indexOf(value);
+        if (index < 0) {
+            index = m_keys.add(value);
+            if (index == m_counts.length)
+                m_counts = Arrays.copyOf(m_counts, m_counts.length * 2);
+        }
+        m_counts[index] = Math.addExact(m_counts[index], count);
+    }
+
+    public void addAll(Iterable<? extends T> values) {
+        for (T value: values)
+            add(value);
+    }
+
+    /**
+     * @return the amount of unique values added so far
+     */
+    public int size() {
+        return m_keys.size();
+    }
+
+    /**
+     * Sorts the unique values added so far, which costs O(k log(k)) for k unique values however many were added.
+     * @return the histogram of every value added so far
+     */
+    @SuppressWarnings("unchecked")
+    public CountHistogram<T> build() {
+        Object[] keys = m_keys.keys();
+        Arrays.sort(keys, (Comparator<Object>) m_comparator);
+
+        long[] counts = new long[keys.length];
+        for (int i = 0; i < keys.length; i++)
+            counts[i] = m_counts[m_keys.indexOf(keys[i])];
+        return new CountHistogram<T>(keys, counts);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+/**
+ * The sorted unique values of a data set with how many times each occurs, as built by
+ * {@link SortUtility#countHistogram(Iterable)} or a {@link CountAccumulator}. The keys and counts are held in two
+ * flat arrays in ascending order of the keys, so the histogram takes memory proportional to the amount of unique
+ * values rather than the size of the data set. Expanding each key count times gives the sorted data set.
+ */
+public final class CountHistogram<T> {
+    private final Object[] m_keys;
+    private final long[] m_counts;
+    private final long m_total;
+
+    CountHistogram(Object[] keys, long[] counts) {
+        m_keys = keys;
+        m_counts = counts;
+        long total = 0;
+        for (long count: counts)
+            total = Math.addExact(total, count);
+        m_total = total;
+    }
+
+    /**
+     * @return the amount of unique values
+     */
+    public int size() {
+        return m_keys.length;
+    }
+
+    /**
+     * @return the unique value at the index, in ascending order
+     */
+    @SuppressWarnings("unchecked")
+    public T getKey(int index) {
+        return (T) m_keys[index];
+    }
+
+    /**
+     * @return how many times the unique value at the index occurs
+     */
+    public long getCount(int index) {
+        return m_counts[index];
+    }
+
+    /**
+     * @return the amount of values counted, the sum of every count
+     */
+    public long getTotal() {
+        return m_total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < m_keys.length; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(m_keys[i]).append('=').append(m_counts[i]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash table that counts how many times each key occurs. Each distinct key is given a dense index
+ * in the order it was added, and its key, cached hash code and count are stored at that index in flat arrays. The
+ * hash slots only hold dense indexes and collisions are resolved with linear probing, so counting an element is a
+ * single probe that never allocates an entry or boxes a count.
+ *
+ * Keys follow the same rules as {@link java.util.HashMap} keys, including a single null key. A table created without
+ * counts only gives each key its dense index, for callers that keep counts of another type alongside it.
+ */
+final class CountTable<T> {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    //Dense index + 1 of the key stored in each hash slot, zero marks an empty slot
+    private int[] m_slots;
+    private Object[] m_keys;
+    private int[] m_hashes;
+    //Null when the table only indexes its keys
+    private int[] m_counts;
+    private int m_size;
+
+    CountTable(int expectedKeys) {
+        this(expectedKeys, true);
+    }
+
+    /**
+     * @param counted false to only index the keys, in which case the count methods must not be called
+     */
+    CountTable(int expectedKeys, boolean counted) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedKeys)
+            capacity <<= 1;
+
+        m_slots = new int[capacity * 2];
+        m_keys = new Object[capacity];
+        m_hashes = new int[capacity];
+        m_counts = counted ? new int[capacity] : null;
+    }
+
+    /**
+     * @return the dense index of the key or -1 if the key was never added
+     */
+    int indexOf(Object key) {
+        int hash = hash(key);
+        int mask = m_slots.length - 1;
+        for (int slot = hash & mask; m_slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = m_slots[slot] - 1;
+            if (m_hashes[index] == hash && equals(key, m_keys[index]))
+                return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the key with a count of zero if it is not already present.
+     * @return the dense index of the key
+     */
+    int add(T key) {
+        int hash = hash(key);
+        int mask = m_slots.length - 1;
+        int slot = hash & mask;
+        for (; m_slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = m_slots[slot] - 1;
+            if (m_hashes[index] == hash && equals(key, m_keys[index]))
+                return index;
+        }
+
+        if (m_size == m_keys.length) {
+            int capacity = m_keys.length * 2;
+            m_keys = Arrays.copyOf(m_keys, capacity);
+            m_hashes = Arrays.copyOf(m_hashes, capacity);
+            if (m_counts != null)
+                m_counts = Arrays.copyOf(m_counts, capacity);
+        }
+
+        int index = m_size++;
+        m_keys[index] = key;
+        m_hashes[index] = hash;
+        m_slots[slot] = index + 1;
+
+        if (m_size * 2 > m_slots.length)
+            rehash(m_slots.length * 2);
+        return index;
+    }
+
+    void increment(int index) {
+        m_counts[index]++;
+    }
+
+    void increment(int index, int amount) {
+        m_counts[index] += amount;
+    }
+
+    int size() {
+        return m_size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T getKey(int index) {
+        return (T) m_keys[index];
+    }
+
+    int getCount(int index) {
+        return m_counts[index];
+    }
+
+    /**
+     * @return a new array holding every key in the order they were added
+     */
+    Object[] keys() {
+        return Arrays.copyOf(m_keys, m_size);
+    }
+
+    /**
+     * Copies every key, in the order they were added, to the start of an array at least {@link #size()} long.
+     */
+    void copyKeys(Object[] keys) {
+        System.arraycopy(m_keys, 0, keys, 0, m_size);
+    }
+
+    /**
+     * Removes every key while keeping the capacity, so the table can count again without allocating.
+     */
+    void clear() {
+        //Removing the newest key first leaves the probe sequence of every older key intact
+        int mask = m_slots.length - 1;
+        for (int index = m_size - 1; index >= 0; index--) {
+            int slot = m_hashes[index] & mask;
+            while (m_slots[slot] != index + 1)
+                slot = (slot + 1) & mask;
+            m_slots[slot] = 0;
+
+            m_keys[index] = null;
+            if (m_counts != null)
+                m_counts[index] = 0;
+        }
+        m_size = 0;
+    }
+
+    private void rehash(int capacity) {
+        m_slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < m_size; index++) {
+            int slot = m_hashes[index] & mask;
+            while (m_slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            m_slots[slot] = index + 1;
+        }
+    }
+
+    private static int hash(Object key) {
+        if (key == null)
+            return 0;
+
+        //Spread the high bits down the same way HashMap does since the table is indexed by the low bits
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(Object key, Object other) {
+        return key == other || (key != null && key.equals(other));
+    }
+}
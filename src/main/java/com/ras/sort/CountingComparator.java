@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.metrics.ISortListener;
+
+import java.util.Comparator;
+
+/**
+ * Reports every comparison to a listener before delegating to the comparator it wraps. Only created when a listener
+ * other than {@link ISortListener#NONE} is given, so uninstrumented sorts call their comparator directly.
+ */
+final class CountingComparator<T> implements Comparator<T> {
+    private final Comparator<T> m_comparator;
+    private final ISortListener m_listener;
+
+    private CountingComparator(Comparator<T> comparator, ISortListener listener) {
+        m_comparator = comparator;
+        m_listener = listener;
+    }
+
+    static <T> Comparator<T> wrap(Comparator<T> comparator, ISortListener listener) {
+        if (listener == ISortListener.NONE)
+            return comparator;
+
+        return new CountingComparator<T>(comparator, listener);
+    }
+
+    @Override
+    public int compare(T o1, T o2) {
+        m_listener.compared();
+        return m_comparator.compare(o1, o2);
+    }
+}
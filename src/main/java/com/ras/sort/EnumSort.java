@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.metrics.ISortListener;
+import com.ras.sort.metrics.SortPhase;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Count sorts for lists of enum constants. Each constant already has a dense index in its
+ * {@link Enum#ordinal()}, so counting an element is a single array increment with no hashing, and since every
+ * constant is a singleton the list is rewritten with the constants themselves.
+ */
+public final class EnumSort {
+    private EnumSort() {
+    }
+
+    /**
+     * Sorts the specified list into the order the constants are declared in, which is their natural ordering. The
+     * list must not contain null.
+     *
+     * This sort is not stable, but equal constants are the same instance.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a count sort indexed by {@link Enum#ordinal()}. This algorithm has a guaranteed O(n + k)
+     * performance where k is the amount of constants the enum declares.
+     * @param list the list of enum constants to be sorted
+     */
+    public static <E extends Enum<E>> void count(List<E> list) {
+        if (list == null || list.isEmpty())
+            return;
+
+        Class<?> enumClass = null;
+        for (E item: list) {
+            if (item != null) {
+                enumClass = item.getDeclaringClass();
+                break;
+            }
+        }
+        if (enumClass == null)
+            throw new IllegalArgumentException("The list parameter cannot contain null.");
+
+        Object[] constants = enumClass.getEnumConstants();
+        int[] ranks = new int[constants.length];
+        for (int i = 0; i < ranks.length; i++)
+            ranks[i] = i;
+
+        countRanks(list, enumClass, ranks, constants, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list into the order provided by orderedUniques. Every element of the list must be one of
+     * orderedUniques. See {@link SortUtility#count(List, Collection)}.
+     *
+     * This sort is not stable, but equal constants are the same instance.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a count sort. Each unique is given its position in orderedUniques as a rank in a table
+     * indexed by {@link Enum#ordinal()}, so every element is counted with two array accesses. This algorithm has a
+     * guaranteed O(n + k) performance where k is the amount of constants the enum declares.
+     * @param list the list of enum constants to be sorted
+     * @param orderedUniques the constants found in the list in the order they should be sorted
+     */
+    public static <E extends Enum<E>> void count(List<E> list, Collection<E> orderedUniques) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (orderedUniques == null || orderedUniques.isEmpty())
+            throw new IllegalArgumentException("The orderedUniques parameter must contain data.");
+
+        countOrderedUniques(list, orderedUniques, enumClassOf(orderedUniques), ISortListener.NONE);
+    }
+
+    /**
+     * @return the enum declaring every unique, or null if they are not all constants of a single enum
+     */
+    static Class<?> enumClassOf(Collection<?> orderedUniques) {
+        Class<?> enumClass = null;
+        for (Object unique: orderedUniques) {
+            if (!(unique instanceof Enum))
+                return null;
+
+            Class<?> declaringClass = ((Enum<?>) unique).getDeclaringClass();
+            if (enumClass == null)
+                enumClass = declaringClass;
+            else if (enumClass != declaringClass)
+                return null;
+        }
+        return enumClass;
+    }
+
+    /**
+     * Sorts a list whose orderedUniques are all constants of enumClass, which may not be known at compile time.
+     */
+    static void countOrderedUniques(List<?> list, Collection<?> orderedUniques, Class<?> enumClass, ISortListener listener) {
+        //ranks[ordinal] is the position of the constant in orderedUniques, or -1 if it is not there
+        int[] ranks = new int[enumClass.getEnumConstants().length];
+        for (int i = 0; i < ranks.length; i++)
+            ranks[i] = -1;
+
+        //A constant repeated in orderedUniques keeps its first position and takes no rank of its own
+        Object[] order = new Object[orderedUniques.size()];
+        int rank = 0;
+        for (Object unique: orderedUniques) {
+            int ordinal = ((Enum<?>) unique).ordinal();
+            if (ranks[ordinal] < 0) {
+                ranks[ordinal] = rank;
+                order[rank++] = unique;
+            }
+        }
+
+        countRanks(list, enumClass, ranks, Arrays.copyOf(order, rank), listener);
+    }
+
+    /**
+     * Counts each element into the rank of its ordinal and rewrites the list with order[rank] for every rank.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void countRanks(List<T> list, Class<?> enumClass, int[] ranks, Object[] order, ISortListener listener) {
+        listener.phaseStarted(SortPhase.COUNT);
+        int[] counts = new int[order.length];
+        for (T item: list) {
+            if (item == null)
+                throw new IllegalArgumentException("The list parameter cannot contain null.");
+
+            int rank = item instanceof Enum && ((Enum<?>) item).getDeclaringClass() == enumClass ?
+                    ranks[((Enum<?>) item).ordinal()] : -1;
+            if (rank < 0)
+                throw new IllegalArgumentException(item + " is not present in the orderedUniques parameter.");
+
+            counts[rank]++;
+        }
+        listener.phaseFinished(SortPhase.COUNT);
+        listener.distinctKeys(order.length);
+
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListIterator<T> iterator = list.listIterator();
+        for (int rank = 0; rank < counts.length; rank++) {
+            T constant = (T) order[rank];
+            for (int count = counts[rank]; count > 0; count--) {
+                iterator.next();
+                iterator.set(constant);
+            }
+        }
+        listener.moved(list.size());
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+/**
+ * An open addressing hash table that counts how many times each int key occurs. Keys and counts are held in two flat
+ * arrays and collisions are resolved with linear probing, so counting never boxes a key or allocates an entry.
+ *
+ * A slot with a count of zero is empty, which is always true for a key that has not been added.
+ */
+final class IntCountTable {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private int[] m_keys;
+    private int[] m_counts;
+    private int m_size;
+    private int m_shift;
+
+    IntCountTable(int expectedKeys) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedKeys * 2)
+            capacity <<= 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Adds one to the count of the key.
+     */
+    void increment(int key) {
+        int mask = m_keys.length - 1;
+        int slot = slot(key);
+        while (m_counts[slot] != 0) {
+            if (m_keys[slot] == key) {
+                m_counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        m_keys[slot] = key;
+        m_counts[slot] = 1;
+        if (++m_size * 2 > m_keys.length)
+            grow();
+    }
+
+    /**
+     * @return the count of the key or zero if the key was never added
+     */
+    int get(int key) {
+        int mask = m_keys.length - 1;
+        int slot = slot(key);
+        while (m_counts[slot] != 0) {
+            if (m_keys[slot] == key)
+                return m_counts[slot];
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    int size() {
+        return m_size;
+    }
+
+    /**
+     * @return a new array holding every distinct key in no particular order
+     */
+    int[] keys() {
+        int[] keys = new int[m_size];
+        int index = 0;
+        for (int slot = 0; slot < m_keys.length; slot++) {
+            if (m_counts[slot] != 0)
+                keys[index++] = m_keys[slot];
+        }
+        return keys;
+    }
+
+    private int slot(int key) {
+        //Fibonacci hashing spreads sequential keys across the whole table
+        return (key * 0x9E3779B9) >>> m_shift;
+    }
+
+    private void allocate(int capacity) {
+        m_keys = new int[capacity];
+        m_counts = new int[capacity];
+        m_shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private void grow() {
+        int[] keys = m_keys;
+        int[] counts = m_counts;
+        allocate(keys.length * 2);
+
+        int mask = m_keys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] == 0)
+                continue;
+
+            int slot = slot(keys[i]);
+            while (m_counts[slot] != 0)
+                slot = (slot + 1) & mask;
+            m_keys[slot] = keys[i];
+            m_counts[slot] = counts[i];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Comparator;
+
+/**
+ * A merge sort of cached keys that moves the item at the same index along with each key. The keys and items are
+ * merged back and forth between the arrays and a copy of them, swapping roles at each level of the recursion so no
+ * level copies a half back before merging, and halves that are already in order are copied without merging.
+ */
+final class KeySort {
+    private KeySort() {
+    }
+
+    /**
+     * Sorts the keys into ascending order, moving the item at the same index along with each key. Equal keys keep
+     * their order.
+     */
+    static <K> void sort(K[] keys, Object[] items, Comparator<? super K> comparator) {
+        K[] keyScratch = keys.clone();
+        Object[] itemScratch = items.clone();
+        mergeSort(keyScratch, itemScratch, keys, items, comparator, 0, keys.length);
+    }
+
+    /**
+     * Sorts the source range from fromIndex, inclusive, to toIndex, exclusive, into the same range of the target. The
+     * source and target hold the same elements in that range when called, and the source may be reordered.
+     */
+    private static <K> void mergeSort(K[] sourceKeys, Object[] sourceItems, K[] targetKeys, Object[] targetItems,
+                                      Comparator<? super K> comparator, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex < SmallSort.INSERTION_SORT_THRESHOLD) {
+            SmallSort.insertionSort(targetKeys, targetItems, comparator, fromIndex, toIndex - 1);
+            return;
+        }
+
+        int middleIndex = (fromIndex + toIndex) >>> 1;
+        mergeSort(targetKeys, targetItems, sourceKeys, sourceItems, comparator, fromIndex, middleIndex);
+        mergeSort(targetKeys, targetItems, sourceKeys, sourceItems, comparator, middleIndex, toIndex);
+
+        if (comparator.compare(sourceKeys[middleIndex - 1], sourceKeys[middleIndex]) <= 0) {
+            System.arraycopy(sourceKeys, fromIndex, targetKeys, fromIndex, toIndex - fromIndex);
+            System.arraycopy(sourceItems, fromIndex, targetItems, fromIndex, toIndex - fromIndex);
+            return;
+        }
+
+        int low = fromIndex;
+        int high = middleIndex;
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (high >= toIndex || (low < middleIndex && comparator.compare(sourceKeys[low], sourceKeys[high]) <= 0)) {
+                targetKeys[i] = sourceKeys[low];
+                targetItems[i] = sourceItems[low++];
+            }
+            else {
+                targetKeys[i] = sourceKeys[high];
+                targetItems[i] = sourceItems[high++];
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Copies list ranges into arrays and back again. Sorting the copy with indexed loops avoids calling
+ * {@link List#get(int)} in the inner loop of a sort, which is O(n) for a {@link java.util.LinkedList} and a megamorphic
+ * interface call for every other list.
+ */
+final class ListArrays {
+    private ListArrays() {
+    }
+
+    /**
+     * The returned array is an Object[] at runtime, so T must not be a type variable with a bound other than Object.
+     * @return a new array holding the elements of the list from fromIndex, inclusive, to toIndex, exclusive
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T[] toArray(List<T> list, int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == list.size())
+            return (T[]) list.toArray();
+        return (T[]) list.subList(fromIndex, toIndex).toArray();
+    }
+
+    /**
+     * Copies the elements of the list to the start of an existing array, which must be at least as long as the list.
+     */
+    static void copyInto(List<?> list, Object[] array) {
+        int index = 0;
+        for (Object item: list)
+            array[index++] = item;
+    }
+
+    /**
+     * Sets the elements of the list starting at fromIndex to the elements of the array with one pass of a
+     * {@link ListIterator}.
+     */
+    static <T> void writeBack(List<T> list, int fromIndex, Object[] array) {
+        writeBack(list, fromIndex, array, array.length);
+    }
+
+    /**
+     * Sets the elements of the list starting at fromIndex to the first length elements of the array.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void writeBack(List<T> list, int fromIndex, Object[] array, int length) {
+        ListIterator<T> iterator = list.listIterator(fromIndex);
+        for (int i = 0; i < length; i++) {
+            iterator.next();
+            iterator.set((T) array[i]);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.bucket.Bucket;
+import com.ras.sort.bucket.IBucketProvider;
+import com.ras.sort.metrics.ISortListener;
+import com.ras.sort.metrics.SortPhase;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A most significant component first bucket sort. A range of elements is grouped by one component of their
+ * {@link Bucket} in a {@link CountTable}, the unique components are sorted and the range is scattered into its groups.
+ * Each group is then sorted the same way by the next component. Only single components are ever hashed, and groups
+ * that are too small to be worth grouping are finished with an insertion sort.
+ *
+ * A bucket with fewer components than another bucket that shares all of its components is ordered first, the same as
+ * {@link Bucket#lexicographicComparator()}.
+ */
+final class MsdBucketSort<T> {
+    //Groups smaller than this are insertion sorted on their remaining components
+    private static final int INSERTION_SORT_THRESHOLD = SmallSort.INSERTION_SORT_THRESHOLD;
+
+    private final Comparator<? super T> m_itemComparator;
+    private final ISortListener m_listener;
+    private final Object[] m_items;
+    private final Bucket<T>[] m_buckets;
+    private final Object[] m_itemScratch;
+    private final Bucket<T>[] m_bucketScratch;
+    private final int[] m_groupIndexes;
+
+    private MsdBucketSort(Object[] items, Bucket<T>[] buckets, Comparator<? super T> itemComparator, ISortListener listener) {
+        m_itemComparator = CountingComparator.wrap(itemComparator, listener);
+        m_listener = listener;
+        m_items = items;
+        m_buckets = buckets;
+        m_itemScratch = new Object[items.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Bucket<T>[] bucketScratch = new Bucket[items.length];
+        m_bucketScratch = bucketScratch;
+        m_groupIndexes = new int[items.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E extends IBucketProvider<T>, T> void sort(List<E> list, Comparator<? super T> itemComparator, ISortListener listener) {
+        listener.phaseStarted(SortPhase.COPY);
+        Object[] items = list.toArray();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Bucket<T>[] buckets = new Bucket[items.length];
+        for (int i = 0; i < items.length; i++)
+            buckets[i] = ((E) items[i]).getBucket();
+        listener.phaseFinished(SortPhase.COPY);
+
+        listener.phaseStarted(SortPhase.SORT);
+        new MsdBucketSort<T>(items, buckets, itemComparator, listener).sort(0, items.length, 0);
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, items);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * Sorts the elements from fromIndex, inclusive, to toIndex, exclusive, which already share their first level
+     * components.
+     */
+    private void sort(int fromIndex, int toIndex, int level) {
+        if (toIndex - fromIndex < INSERTION_SORT_THRESHOLD) {
+            insertionSort(fromIndex, toIndex, level);
+            return;
+        }
+
+        m_listener.recursed(level);
+        //Buckets without a component at this level come first, they are given group index -1
+        CountTable<T> counts = new CountTable<T>(0);
+        int exhausted = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (m_buckets[i].getBucketItemCount() <= level) {
+                m_groupIndexes[i] = -1;
+                exhausted++;
+                continue;
+            }
+
+            int index = counts.add(m_buckets[i].getBucketItem(level));
+            counts.increment(index);
+            m_groupIndexes[i] = index;
+        }
+
+        if (exhausted == toIndex - fromIndex)
+            return;
+        else if (exhausted == 0 && counts.size() == 1) {
+            //Every element shares this component so there is nothing to scatter
+            sort(fromIndex, toIndex, level + 1);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        T[] keys = (T[]) counts.keys();
+        Arrays.sort(keys, m_itemComparator);
+
+        //order holds the dense indexes of the sorted keys, offsets the next output index by dense index
+        int[] order = new int[keys.length];
+        int[] offsets = new int[keys.length];
+        int offset = fromIndex + exhausted;
+        for (int i = 0; i < keys.length; i++) {
+            int index = counts.indexOf(keys[i]);
+            order[i] = index;
+            offsets[index] = offset;
+            offset += counts.getCount(index);
+        }
+
+        int exhaustedOffset = fromIndex;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int target = m_groupIndexes[i] < 0 ? exhaustedOffset++ : offsets[m_groupIndexes[i]]++;
+            m_itemScratch[target] = m_items[i];
+            m_bucketScratch[target] = m_buckets[i];
+        }
+        System.arraycopy(m_itemScratch, fromIndex, m_items, fromIndex, toIndex - fromIndex);
+        System.arraycopy(m_bucketScratch, fromIndex, m_buckets, fromIndex, toIndex - fromIndex);
+        m_listener.moved(toIndex - fromIndex);
+
+        int groupStart = fromIndex + exhausted;
+        for (int index: order) {
+            int groupEnd = groupStart + counts.getCount(index);
+            if (groupEnd - groupStart > 1)
+                sort(groupStart, groupEnd, level + 1);
+            groupStart = groupEnd;
+        }
+    }
+
+    private void insertionSort(int fromIndex, int toIndex, int level) {
+        if (toIndex - fromIndex > 1)
+            m_listener.moved(SmallSort.insertionSort(m_buckets, m_items, new LevelComparator(level), fromIndex, toIndex - 1));
+    }
+
+    private int compare(Bucket<T> o1, Bucket<T> o2, int level) {
+        int count = Math.min(o1.getBucketItemCount(), o2.getBucketItemCount());
+        for (int i = level; i < count; i++) {
+            int compare = m_itemComparator.compare(o1.getBucketItem(i), o2.getBucketItem(i));
+            if (compare != 0)
+                return compare;
+        }
+        return o1.getBucketItemCount() - o2.getBucketItemCount();
+    }
+
+    /**
+     * Orders buckets that already share their components below level.
+     */
+    private class LevelComparator implements Comparator<Bucket<T>> {
+        private final int m_level;
+
+        private LevelComparator(int level) {
+            m_level = level;
+        }
+
+        @Override
+        public int compare(Bucket<T> o1, Bucket<T> o2) {
+            return MsdBucketSort.this.compare(o1, o2, m_level);
+        }
+    }
+}
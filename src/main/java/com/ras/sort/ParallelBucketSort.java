@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.bucket.Bucket;
+import com.ras.sort.bucket.IBucketProvider;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The bucket sort of {@link BucketSort} split across the workers of a {@link ForkJoinPool}. Each chunk of the list is
+ * grouped into its own {@link CountTable}, the chunk tables are merged into the bucket sizes, and the unique buckets
+ * are sorted once. Every chunk is then given its own output range inside each of its buckets, ordered by chunk so the
+ * sort stays stable, and the chunks scatter their elements into those ranges concurrently.
+ */
+final class ParallelBucketSort<E extends IBucketProvider<T>, T> {
+    //Below this many elements per chunk the overhead of forking is more than the grouping itself
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    private final Object[] m_items;
+    private final int m_chunkSize;
+    private final CountTable<Bucket<T>>[] m_chunkCounts;
+    //The dense index of each element's bucket in the table of its chunk
+    private final int[] m_bucketIndexes;
+    //The next output index of each bucket of each chunk, by the dense index in the table of the chunk
+    private final int[][] m_chunkOffsets;
+    private final Object[] m_sorted;
+
+    private ParallelBucketSort(Object[] items, int chunkSize) {
+        m_items = items;
+        m_chunkSize = chunkSize;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        CountTable<Bucket<T>>[] chunkCounts = new CountTable[(items.length + chunkSize - 1) / chunkSize];
+        m_chunkCounts = chunkCounts;
+        m_bucketIndexes = new int[items.length];
+        m_chunkOffsets = new int[m_chunkCounts.length][];
+        m_sorted = new Object[items.length];
+    }
+
+    static <E extends IBucketProvider<T>, T> void sort(List<E> list, Comparator<Bucket<T>> bucketComparator, ForkJoinPool pool) {
+        Object[] items = list.toArray();
+        int chunkSize = Math.max(SEQUENTIAL_THRESHOLD, items.length / (pool.getParallelism() * 4) + 1);
+
+        ParallelBucketSort<E, T> sort = new ParallelBucketSort<E, T>(items, chunkSize);
+        pool.invoke(sort.new ChunkTask(true, 0, sort.m_chunkCounts.length));
+        sort.computeOffsets(bucketComparator);
+        pool.invoke(sort.new ChunkTask(false, 0, sort.m_chunkCounts.length));
+
+        ListArrays.writeBack(list, 0, sort.m_sorted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void group(int chunk) {
+        CountTable<Bucket<T>> counts = new CountTable<Bucket<T>>(0);
+        int end = Math.min(m_items.length, (chunk + 1) * m_chunkSize);
+        for (int i = chunk * m_chunkSize; i < end; i++) {
+            int index = counts.add(((E) m_items[i]).getBucket());
+            counts.increment(index);
+            m_bucketIndexes[i] = index;
+        }
+        m_chunkCounts[chunk] = counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void computeOffsets(Comparator<Bucket<T>> bucketComparator) {
+        CountTable<Bucket<T>> counts = new CountTable<Bucket<T>>(0);
+        int[][] globalIndexes = new int[m_chunkCounts.length][];
+        for (int chunk = 0; chunk < m_chunkCounts.length; chunk++) {
+            CountTable<Bucket<T>> chunkCounts = m_chunkCounts[chunk];
+            globalIndexes[chunk] = new int[chunkCounts.size()];
+            for (int index = 0; index < chunkCounts.size(); index++) {
+                int globalIndex = counts.add(chunkCounts.getKey(index));
+                counts.increment(globalIndex, chunkCounts.getCount(index));
+                globalIndexes[chunk][index] = globalIndex;
+            }
+        }
+
+        Object[] keys = counts.keys();
+        Arrays.sort(keys, (Comparator<Object>) (Comparator<?>) bucketComparator);
+
+        int[] offsets = new int[keys.length];
+        int offset = 0;
+        for (Object key: keys) {
+            int index = counts.indexOf(key);
+            offsets[index] = offset;
+            offset += counts.getCount(index);
+        }
+
+        //Earlier chunks take the front of each bucket so elements keep their original order within a bucket
+        for (int chunk = 0; chunk < m_chunkCounts.length; chunk++) {
+            CountTable<Bucket<T>> chunkCounts = m_chunkCounts[chunk];
+            m_chunkOffsets[chunk] = new int[chunkCounts.size()];
+            for (int index = 0; index < chunkCounts.size(); index++) {
+                int globalIndex = globalIndexes[chunk][index];
+                m_chunkOffsets[chunk][index] = offsets[globalIndex];
+                offsets[globalIndex] += chunkCounts.getCount(index);
+            }
+            m_chunkCounts[chunk] = null;
+        }
+    }
+
+    private void scatter(int chunk) {
+        int[] offsets = m_chunkOffsets[chunk];
+        int end = Math.min(m_items.length, (chunk + 1) * m_chunkSize);
+        for (int i = chunk * m_chunkSize; i < end; i++)
+            m_sorted[offsets[m_bucketIndexes[i]]++] = m_items[i];
+    }
+
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean m_group;
+        private final int m_fromChunk;
+        private final int m_toChunk;
+
+        private ChunkTask(boolean group, int fromChunk, int toChunk) {
+            m_group = group;
+            m_fromChunk = fromChunk;
+            m_toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (m_toChunk - m_fromChunk == 1) {
+                if (m_group)
+                    group(m_fromChunk);
+                else
+                    scatter(m_fromChunk);
+                return;
+            }
+
+            int middle = m_fromChunk + (m_toChunk - m_fromChunk) / 2;
+            invokeAll(new ChunkTask(m_group, m_fromChunk, middle), new ChunkTask(m_group, middle, m_toChunk));
+        }
+    }
+}
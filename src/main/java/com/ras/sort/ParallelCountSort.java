@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A count sort that runs on a {@link ForkJoinPool}. Each worker counts a chunk of the list into its own
+ * {@link CountTable}, the tables are merged as the tasks join, and the sorted unique keys are then written back to
+ * disjoint ranges of the list in parallel.
+ *
+ * The list must be {@link java.util.RandomAccess} and its {@link List#set(int, Object)} must be safe to call from
+ * several threads for different indexes, which is true for {@link java.util.ArrayList} and
+ * {@link java.util.Arrays#asList(Object[])}.
+ */
+final class ParallelCountSort {
+    //Below this many elements per task the overhead of forking is more than the counting itself
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    private ParallelCountSort() {
+    }
+
+    static <T extends Comparable<? super T>> void sort(List<T> list, ForkJoinPool pool) {
+        int chunkSize = chunkSize(list.size(), pool.getParallelism());
+        CountTable<T> counts = pool.invoke(new CountTask<T>(list, 0, list.size(), chunkSize));
+
+        Object[] keys = counts.keys();
+        Arrays.sort(keys);
+
+        //offsets[i] is the first index of the list holding keys[i], every key has a count of at least one
+        int[] offsets = new int[keys.length + 1];
+        for (int i = 0; i < keys.length; i++)
+            offsets[i + 1] = offsets[i] + counts.getCount(counts.indexOf(keys[i]));
+
+        pool.invoke(new ResetTask<T>(list, keys, offsets, 0, list.size(), chunkSize));
+    }
+
+    private static int chunkSize(int size, int parallelism) {
+        //A few chunks per worker lets work stealing even out uneven chunks
+        return Math.max(SEQUENTIAL_THRESHOLD, size / (parallelism * 4) + 1);
+    }
+
+    private static class CountTask<T> extends RecursiveTask<CountTable<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> m_list;
+        private final int m_from;
+        private final int m_to;
+        private final int m_chunkSize;
+
+        private CountTask(List<T> list, int from, int to, int chunkSize) {
+            m_list = list;
+            m_from = from;
+            m_to = to;
+            m_chunkSize = chunkSize;
+        }
+
+        @Override
+        protected CountTable<T> compute() {
+            if (m_to - m_from <= m_chunkSize) {
+                CountTable<T> counts = new CountTable<T>(0);
+                for (int i = m_from; i < m_to; i++)
+                    counts.increment(counts.add(m_list.get(i)));
+                return counts;
+            }
+
+            int middle = m_from + (m_to - m_from) / 2;
+            CountTask<T> right = new CountTask<T>(m_list, middle, m_to, m_chunkSize);
+            right.fork();
+            CountTable<T> counts = new CountTask<T>(m_list, m_from, middle, m_chunkSize).compute();
+            CountTable<T> rightCounts = right.join();
+
+            for (int index = 0; index < rightCounts.size(); index++)
+                counts.increment(counts.add(rightCounts.getKey(index)), rightCounts.getCount(index));
+            return counts;
+        }
+    }
+
+    private static class ResetTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> m_list;
+        private final Object[] m_keys;
+        private final int[] m_offsets;
+        private final int m_from;
+        private final int m_to;
+        private final int m_chunkSize;
+
+        private ResetTask(List<T> list, Object[] keys, int[] offsets, int from, int to, int chunkSize) {
+            m_list = list;
+            m_keys = keys;
+            m_offsets = offsets;
+            m_from = from;
+            m_to = to;
+            m_chunkSize = chunkSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (m_to - m_from <= m_chunkSize) {
+                //Find the key whose range holds m_from
+                int keyIndex = Arrays.binarySearch(m_offsets, m_from);
+                if (keyIndex < 0)
+                    keyIndex = -keyIndex - 2;
+
+                for (int i = m_from; i < m_to; i++) {
+                    if (i == m_offsets[keyIndex + 1])
+                        keyIndex++;
+                    m_list.set(i, (T) m_keys[keyIndex]);
+                }
+                return;
+            }
+
+            int middle = m_from + (m_to - m_from) / 2;
+            invokeAll(new ResetTask<T>(m_list, m_keys, m_offsets, m_from, middle, m_chunkSize),
+                    new ResetTask<T>(m_list, m_keys, m_offsets, middle, m_to, m_chunkSize));
+        }
+    }
+}
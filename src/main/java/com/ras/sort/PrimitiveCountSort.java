@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Arrays;
+
+/**
+ * Count sorts for primitive arrays. Values are counted into a flat histogram indexed by value - min when the range of
+ * values is small compared to the array, otherwise into an {@link IntCountTable} or {@link LongCountTable}. The array
+ * is then rewritten in place, so no value is ever boxed. The short, char and byte ranges are small enough that they
+ * always use a histogram.
+ */
+final class PrimitiveCountSort {
+    //A histogram of up to this many slots per element is cheaper than hashing every element
+    private static final int DENSE_SLOTS_PER_ELEMENT = 2;
+    //Ranges this small always use a histogram no matter how few elements there are
+    private static final int DENSE_MINIMUM_SLOTS = 1 << 8;
+    //Spans above the largest allocatable array are never dense, so a dense span always fits in an int
+    private static final int DENSE_MAXIMUM_SLOTS = Integer.MAX_VALUE - 8;
+
+    private PrimitiveCountSort() {
+    }
+
+    static void sort(int[] array) {
+        if (array.length <= SmallSort.NETWORK_MAX_LENGTH) {
+            SmallSort.sort(array);
+            return;
+        }
+
+        int min = array[0];
+        int max = array[0];
+        for (int value: array) {
+            if (value < min)
+                min = value;
+            else if (value > max)
+                max = value;
+        }
+
+        long span = (long) max - min + 1;
+        if (isDense(span, array.length)) {
+            int[] histogram = new int[(int) span];
+            for (int value: array)
+                histogram[value - min]++;
+
+            int index = 0;
+            for (int slot = 0; slot < histogram.length; slot++) {
+                int value = min + slot;
+                for (int count = histogram[slot]; count > 0; count--)
+                    array[index++] = value;
+            }
+        }
+        else {
+            IntCountTable counts = new IntCountTable(0);
+            for (int value: array)
+                counts.increment(value);
+
+            int[] keys = counts.keys();
+            Arrays.sort(keys);
+
+            int index = 0;
+            for (int key: keys) {
+                for (int count = counts.get(key); count > 0; count--)
+                    array[index++] = key;
+            }
+        }
+    }
+
+    static void sort(long[] array) {
+        if (array.length <= SmallSort.NETWORK_MAX_LENGTH) {
+            SmallSort.sort(array);
+            return;
+        }
+
+        long min = array[0];
+        long max = array[0];
+        for (long value: array) {
+            if (value < min)
+                min = value;
+            else if (value > max)
+                max = value;
+        }
+
+        //The subtraction can overflow when the values span more than the long range, which is never dense
+        long span = max - min + 1;
+        if (span > 0 && isDense(span, array.length)) {
+            int[] histogram = new int[(int) span];
+            for (long value: array)
+                histogram[(int) (value - min)]++;
+
+            int index = 0;
+            for (int slot = 0; slot < histogram.length; slot++) {
+                long value = min + slot;
+                for (int count = histogram[slot]; count > 0; count--)
+                    array[index++] = value;
+            }
+        }
+        else {
+            LongCountTable counts = new LongCountTable(0);
+            for (long value: array)
+                counts.increment(value);
+
+            long[] keys = counts.keys();
+            Arrays.sort(keys);
+
+            int index = 0;
+            for (long key: keys) {
+                for (int count = counts.get(key); count > 0; count--)
+                    array[index++] = key;
+            }
+        }
+    }
+
+    static void sort(short[] array) {
+        short min = array[0];
+        short max = array[0];
+        for (short value: array) {
+            if (value < min)
+                min = value;
+            else if (value > max)
+                max = value;
+        }
+
+        int[] histogram = new int[max - min + 1];
+        for (short value: array)
+            histogram[value - min]++;
+
+        int index = 0;
+        for (int slot = 0; slot < histogram.length; slot++) {
+            short value = (short) (min + slot);
+            for (int count = histogram[slot]; count > 0; count--)
+                array[index++] = value;
+        }
+    }
+
+    static void sort(char[] array) {
+        char min = array[0];
+        char max = array[0];
+        for (char value: array) {
+            if (value < min)
+                min = value;
+            else if (value > max)
+                max = value;
+        }
+
+        int[] histogram = new int[max - min + 1];
+        for (char value: array)
+            histogram[value - min]++;
+
+        int index = 0;
+        for (int slot = 0; slot < histogram.length; slot++) {
+            char value = (char) (min + slot);
+            for (int count = histogram[slot]; count > 0; count--)
+                array[index++] = value;
+        }
+    }
+
+    static void sort(byte[] array) {
+        int[] histogram = new int[1 << 8];
+        for (byte value: array)
+            histogram[value - Byte.MIN_VALUE]++;
+
+        int index = 0;
+        for (int slot = 0; slot < histogram.length; slot++) {
+            byte value = (byte) (slot + Byte.MIN_VALUE);
+            for (int count = histogram[slot]; count > 0; count--)
+                array[index++] = value;
+        }
+    }
+
+    private static boolean isDense(long span, int length) {
+        if (span > DENSE_MAXIMUM_SLOTS)
+            return false;
+
+        return span <= Math.max((long) length * DENSE_SLOTS_PER_ELEMENT, DENSE_MINIMUM_SLOTS);
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.metrics.ISortListener;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The introspective quick sort behind {@link SortUtility#quickSort(java.util.List, Comparator, int, int)}. It works on
+ * an array copy of the list so the inner loops are plain indexed array accesses. The parallel variant partitions on
+ * the calling task and forks both sides until they are small enough to sort sequentially.
+ */
+final class QuickSort {
+    //Ranges smaller than this are finished with an insertion sort instead of being partitioned
+    static final int INSERTION_SORT_THRESHOLD = SmallSort.INSERTION_SORT_THRESHOLD;
+    //Ranges smaller than this are sorted sequentially by the parallel sort unless told otherwise
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
+    private QuickSort() {
+    }
+
+    /**
+     * Sorts the array from startIndex to endIndex, both inclusive.
+     */
+    static <T> void sort(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex) {
+        sort(array, comparator, startIndex, endIndex, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the array from startIndex to endIndex, both inclusive, reporting moves and partition depths to the
+     * listener.
+     */
+    static <T> void sort(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex, ISortListener listener) {
+        if (endIndex <= startIndex || presorted(array, comparator, startIndex, endIndex, listener))
+            return;
+
+        introSort(array, comparator, startIndex, endIndex, depthLimit(endIndex - startIndex + 1), 0, listener);
+    }
+
+    /**
+     * Finishes ranges that are already in ascending order, or in descending order and only need reversing. The scan
+     * stops at the first element out of order, so on unordered input it costs a couple of comparisons.
+     */
+    private static <T> boolean presorted(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex,
+                                         ISortListener listener) {
+        int i = startIndex + 1;
+        if (comparator.compare(array[startIndex], array[i]) <= 0) {
+            while (i < endIndex && comparator.compare(array[i], array[i + 1]) <= 0)
+                i++;
+            return i == endIndex;
+        }
+
+        while (i < endIndex && comparator.compare(array[i], array[i + 1]) >= 0)
+            i++;
+        if (i != endIndex)
+            return false;
+
+        for (int low = startIndex, high = endIndex; low < high; low++, high--)
+            swap(array, low, high);
+        listener.moved((endIndex - startIndex + 1) / 2);
+        return true;
+    }
+
+    /**
+     * Sorts the whole array on the workers of the pool, sorting ranges of at most sequentialThreshold elements on a
+     * single worker.
+     */
+    static <T> void parallelSort(T[] array, Comparator<? super T> comparator, ForkJoinPool pool, int sequentialThreshold) {
+        if (array.length < 2)
+            return;
+
+        pool.invoke(new SortTask<T>(array, comparator, 0, array.length - 1, depthLimit(array.length), sequentialThreshold));
+    }
+
+    /**
+     * Moves the element that belongs at index k of the sorted array there, with no greater element before it and no
+     * smaller element after it. Only the partitions holding k are visited, so this runs in expected linear time, and
+     * falls back to a heap sort of the remaining range when the partitions keep coming out unbalanced. Every
+     * partition and element moved is reported to the listener.
+     */
+    static <T> void select(T[] array, Comparator<? super T> comparator, int k, ISortListener listener) {
+        int startIndex = 0;
+        int endIndex = array.length - 1;
+        int depthLimit = depthLimit(array.length);
+        int depth = 0;
+        while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit == 0) {
+                heapSort(array, comparator, startIndex, endIndex, listener);
+                return;
+            }
+            depthLimit--;
+            listener.recursed(depth++);
+
+            long bounds = partition(array, comparator, startIndex, endIndex, listener);
+            int lowEnd = (int) (bounds >> 32);
+            int highStart = (int) bounds;
+            if (k <= lowEnd)
+                endIndex = lowEnd;
+            else if (k >= highStart)
+                startIndex = highStart;
+            else
+                return;
+        }
+
+        listener.moved(SmallSort.insertionSort(array, comparator, startIndex, endIndex));
+    }
+
+    /**
+     * Moves the k smallest elements of the array to its front in ascending order, leaving the rest in no particular
+     * order. Every partition and element moved is reported to the listener.
+     */
+    static <T> void partialSort(T[] array, Comparator<? super T> comparator, int k, ISortListener listener) {
+        if (k == 0)
+            return;
+
+        if (k < array.length)
+            select(array, comparator, k - 1, listener);
+        sort(array, comparator, 0, k - 1, listener);
+    }
+
+    static int depthLimit(int size) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(size));
+    }
+
+    private static <T> void introSort(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex, int depthLimit,
+                                      int depth, ISortListener listener) {
+        //Recurse into the smaller partition and loop on the larger one so the stack never grows past log(n)
+        while (endIndex - startIndex >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit == 0) {
+                //Too many unbalanced partitions, heap sort keeps the worst case at O(n log(n))
+                heapSort(array, comparator, startIndex, endIndex, listener);
+                return;
+            }
+            depthLimit--;
+            listener.recursed(depth++);
+
+            //Everything between lowEnd and highStart is already in its final place
+            long bounds = partition(array, comparator, startIndex, endIndex, listener);
+            int lowEnd = (int) (bounds >> 32);
+            int highStart = (int) bounds;
+            if (lowEnd - startIndex < endIndex - highStart) {
+                introSort(array, comparator, startIndex, lowEnd, depthLimit, depth, listener);
+                startIndex = highStart;
+            }
+            else {
+                introSort(array, comparator, highStart, endIndex, depthLimit, depth, listener);
+                endIndex = lowEnd;
+            }
+        }
+
+        listener.moved(SmallSort.insertionSort(array, comparator, startIndex, endIndex));
+    }
+
+    private static <T> long partition(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex,
+                                      ISortListener listener) {
+        int middleIndex = startIndex + (endIndex - startIndex)/2;
+        int pivotIndex = middleIndex;
+
+        //select the median value as the pivot index.  This is for efficiency
+        T startValue = array[startIndex];
+        T middleValue = array[middleIndex];
+        T endValue = array[endIndex];
+        T pivotValue = middleValue;
+        if (comparator.compare(startValue, middleValue) < 0) {
+            if (comparator.compare(endValue, startValue) < 0) {
+                pivotIndex = startIndex;
+                pivotValue = startValue;
+            }
+            else if (comparator.compare(endValue, middleValue) < 0) {
+                pivotIndex = endIndex;
+                pivotValue = endValue;
+            }
+        }
+        else if (comparator.compare(endValue, middleValue) > 0) {
+            if (comparator.compare(endValue, startValue) < 0) {
+                pivotIndex = endIndex;
+                pivotValue = endValue;
+            }
+            else {
+                pivotIndex = startIndex;
+                pivotValue = startValue;
+            }
+        }
+
+        //Two equal samples suggest the range is full of duplicates which would otherwise all end up on one side
+        if ((pivotIndex != startIndex && comparator.compare(startValue, pivotValue) == 0) ||
+                (pivotIndex != endIndex && comparator.compare(endValue, pivotValue) == 0))
+            return threeWayPartition(array, comparator, startIndex, endIndex, pivotValue, listener);
+
+        swap(array, pivotIndex, endIndex);
+        int swapIndex = startIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (comparator.compare(array[i], pivotValue) < 0) {
+                swap(array, i, swapIndex);
+                swapIndex++;
+            }
+        }
+        swap(array, swapIndex, endIndex);
+        listener.moved(swapIndex - startIndex + 2);
+        return bounds(swapIndex - 1, swapIndex + 1);
+    }
+
+    private static <T> long threeWayPartition(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex, T pivotValue,
+                                              ISortListener listener) {
+        //Dutch national flag: [startIndex, less) < pivot, [less, i) == pivot, (greater, endIndex] > pivot
+        int less = startIndex;
+        int greater = endIndex;
+        int i = startIndex;
+        while (i <= greater) {
+            int compare = comparator.compare(array[i], pivotValue);
+            if (compare < 0)
+                swap(array, less++, i++);
+            else if (compare > 0)
+                swap(array, i, greater--);
+            else
+                i++;
+        }
+        //Every element outside [less, greater] took one swap
+        listener.moved(less - startIndex + endIndex - greater);
+        return bounds(less - 1, greater + 1);
+    }
+
+    private static long bounds(int lowEnd, int highStart) {
+        return ((long) lowEnd << 32) | (highStart & 0xFFFFFFFFL);
+    }
+
+    private static <T> void heapSort(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex,
+                                     ISortListener listener) {
+        int size = endIndex - startIndex + 1;
+        long moves = 0;
+        for (int i = size / 2 - 1; i >= 0; i--)
+            moves += siftDown(array, comparator, startIndex, i, size);
+
+        for (int last = size - 1; last > 0; last--) {
+            swap(array, startIndex, startIndex + last);
+            moves += 1 + siftDown(array, comparator, startIndex, 0, last);
+        }
+        listener.moved(moves);
+    }
+
+    /**
+     * @return the amount of elements moved up the heap
+     */
+    private static <T> int siftDown(T[] array, Comparator<? super T> comparator, int offset, int root, int size) {
+        T value = array[offset + root];
+        int moves = 0;
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && comparator.compare(array[offset + child], array[offset + child + 1]) < 0)
+                child++;
+            if (comparator.compare(value, array[offset + child]) >= 0)
+                break;
+
+            array[offset + root] = array[offset + child];
+            root = child;
+            moves++;
+        }
+        array[offset + root] = value;
+        return moves;
+    }
+
+    private static void swap(Object[] array, int i, int j) {
+        Object value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private static class SortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] m_array;
+        private final Comparator<? super T> m_comparator;
+        private final int m_startIndex;
+        private final int m_endIndex;
+        private final int m_depthLimit;
+        private final int m_sequentialThreshold;
+
+        private SortTask(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex, int depthLimit,
+                         int sequentialThreshold) {
+            m_array = array;
+            m_comparator = comparator;
+            m_startIndex = startIndex;
+            m_endIndex = endIndex;
+            m_depthLimit = depthLimit;
+            m_sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (m_endIndex - m_startIndex < m_sequentialThreshold || m_depthLimit == 0) {
+                introSort(m_array, m_comparator, m_startIndex, m_endIndex, m_depthLimit, 0, ISortListener.NONE);
+                return;
+            }
+
+            long bounds = partition(m_array, m_comparator, m_startIndex, m_endIndex, ISortListener.NONE);
+            int lowEnd = (int) (bounds >> 32);
+            int highStart = (int) bounds;
+            invokeAll(new SortTask<T>(m_array, m_comparator, m_startIndex, lowEnd, m_depthLimit - 1, m_sequentialThreshold),
+                    new SortTask<T>(m_array, m_comparator, highStart, m_endIndex, m_depthLimit - 1, m_sequentialThreshold));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.key.IDoubleKeyExtractor;
+import com.ras.sort.key.IIntKeyExtractor;
+import com.ras.sort.key.ILongKeyExtractor;
+
+import java.util.List;
+
+/**
+ * Least significant digit radix sorts over 8 bit digits. The histograms of every digit are built in a single pass
+ * before any element is moved, so a digit that is the same for every key is skipped without another pass. Keys, and
+ * the items that travel with them, are scattered back and forth between the input and one scratch buffer.
+ *
+ * Signed keys are ordered by flipping the sign bit of the most significant digit.
+ */
+final class RadixSort {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    private RadixSort() {
+    }
+
+    static <T> void sortByInt(List<T> list, IIntKeyExtractor<? super T> keyExtractor) {
+        T[] items = ListArrays.toArray(list, 0, list.size());
+        int[] keys = new int[items.length];
+        for (int i = 0; i < items.length; i++)
+            keys[i] = keyExtractor.getKey(items[i]);
+
+        sort(keys, items);
+        ListArrays.writeBack(list, 0, items);
+    }
+
+    static <T> void sortByLong(List<T> list, ILongKeyExtractor<? super T> keyExtractor) {
+        T[] items = ListArrays.toArray(list, 0, list.size());
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++)
+            keys[i] = keyExtractor.getKey(items[i]);
+
+        sort(keys, items);
+        ListArrays.writeBack(list, 0, items);
+    }
+
+    static <T> void sortByDouble(List<T> list, IDoubleKeyExtractor<? super T> keyExtractor) {
+        T[] items = ListArrays.toArray(list, 0, list.size());
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++)
+            keys[i] = sortableBits(keyExtractor.getKey(items[i]));
+
+        sort(keys, items);
+        ListArrays.writeBack(list, 0, items);
+    }
+
+    /**
+     * Sorts the keys into ascending order, moving the item at the same index along with each key.
+     * @param keys the keys to be sorted
+     * @param items the items to be moved with the keys or null if there are none
+     */
+    static void sort(int[] keys, Object[] items) {
+        if (items == null && keys.length <= SmallSort.NETWORK_MAX_LENGTH) {
+            SmallSort.sort(keys);
+            return;
+        }
+
+        int length = keys.length;
+        int passes = Integer.SIZE / DIGIT_BITS;
+        int[][] histograms = new int[passes][RADIX];
+        for (int key: keys) {
+            for (int pass = 0; pass < passes; pass++)
+                histograms[pass][digit(key, pass, passes)]++;
+        }
+
+        int[] sourceKeys = keys;
+        Object[] sourceItems = items;
+        int[] targetKeys = new int[length];
+        Object[] targetItems = items == null ? null : new Object[length];
+        for (int pass = 0; pass < passes; pass++) {
+            int[] offsets = histograms[pass];
+            if (!toOffsets(offsets, length))
+                continue;
+
+            for (int i = 0; i < length; i++) {
+                int target = offsets[digit(sourceKeys[i], pass, passes)]++;
+                targetKeys[target] = sourceKeys[i];
+                if (items != null)
+                    targetItems[target] = sourceItems[i];
+            }
+
+            int[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            Object[] swapItems = sourceItems;
+            sourceItems = targetItems;
+            targetItems = swapItems;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            if (items != null)
+                System.arraycopy(sourceItems, 0, items, 0, length);
+        }
+    }
+
+    /**
+     * Sorts the keys into ascending order, moving the item at the same index along with each key.
+     * @param keys the keys to be sorted
+     * @param items the items to be moved with the keys or null if there are none
+     */
+    static void sort(long[] keys, Object[] items) {
+        if (items == null && keys.length <= SmallSort.NETWORK_MAX_LENGTH) {
+            SmallSort.sort(keys);
+            return;
+        }
+
+        int length = keys.length;
+        int passes = Long.SIZE / DIGIT_BITS;
+        int[][] histograms = new int[passes][RADIX];
+        for (long key: keys) {
+            for (int pass = 0; pass < passes; pass++)
+                histograms[pass][digit(key, pass, passes)]++;
+        }
+
+        long[] sourceKeys = keys;
+        Object[] sourceItems = items;
+        long[] targetKeys = new long[length];
+        Object[] targetItems = items == null ? null : new Object[length];
+        for (int pass = 0; pass < passes; pass++) {
+            int[] offsets = histograms[pass];
+            if (!toOffsets(offsets, length))
+                continue;
+
+            for (int i = 0; i < length; i++) {
+                int target = offsets[digit(sourceKeys[i], pass, passes)]++;
+                targetKeys[target] = sourceKeys[i];
+                if (items != null)
+                    targetItems[target] = sourceItems[i];
+            }
+
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            Object[] swapItems = sourceItems;
+            sourceItems = targetItems;
+            targetItems = swapItems;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            if (items != null)
+                System.arraycopy(sourceItems, 0, items, 0, length);
+        }
+    }
+
+    /**
+     * Maps a double onto a long whose signed order is the order of {@link Double#compare(double, double)}: negative
+     * values have every bit but the sign flipped, so -0.0 sorts before 0.0 and NaN sorts after positive infinity.
+     */
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+    }
+
+    private static int digit(int key, int pass, int passes) {
+        int digit = (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK;
+        return pass == passes - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    private static int digit(long key, int pass, int passes) {
+        int digit = (int) (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK;
+        return pass == passes - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    /**
+     * Turns the histogram of a digit into the first target index of each digit value.
+     * @return false if every key has the same digit so the pass can be skipped
+     */
+    private static boolean toOffsets(int[] histogram, int length) {
+        int offset = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = histogram[digit];
+            if (count == length)
+                return false;
+
+            histogram[digit] = offset;
+            offset += count;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.record.RecordKeyType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An introspective quick sort of fixed width records held in a {@link ByteBuffer}. Records are addressed by index,
+ * their keys are read with the absolute getters of the buffer and records are swapped eight bytes at a time, so
+ * sorting allocates nothing and never copies the records out of the buffer.
+ */
+final class RecordSort {
+    private final ByteBuffer m_buffer;
+    private final int m_base;
+    private final int m_recordWidth;
+    private final int m_keyOffset;
+    private final RecordKeyType m_keyType;
+
+    private RecordSort(ByteBuffer buffer, int recordWidth, int keyOffset, RecordKeyType keyType) {
+        m_buffer = buffer;
+        m_base = buffer.position();
+        m_recordWidth = recordWidth;
+        m_keyOffset = keyOffset;
+        m_keyType = keyType;
+    }
+
+    /**
+     * Sorts the records between the position and the limit of the buffer.
+     */
+    static void sort(ByteBuffer buffer, int recordWidth, int keyOffset, RecordKeyType keyType) {
+        int count = buffer.remaining() / recordWidth;
+        if (count < 2)
+            return;
+
+        new RecordSort(buffer, recordWidth, keyOffset, keyType).introSort(0, count - 1, QuickSort.depthLimit(count));
+    }
+
+    private void introSort(int startIndex, int endIndex, int depthLimit) {
+        while (endIndex - startIndex >= QuickSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit == 0) {
+                heapSort(startIndex, endIndex);
+                return;
+            }
+            depthLimit--;
+
+            long bounds = partition(startIndex, endIndex);
+            int lowEnd = (int) (bounds >> 32);
+            int highStart = (int) bounds;
+            if (lowEnd - startIndex < endIndex - highStart) {
+                introSort(startIndex, lowEnd, depthLimit);
+                startIndex = highStart;
+            }
+            else {
+                introSort(highStart, endIndex, depthLimit);
+                endIndex = lowEnd;
+            }
+        }
+
+        insertionSort(startIndex, endIndex);
+    }
+
+    private long partition(int startIndex, int endIndex) {
+        int middleIndex = startIndex + (endIndex - startIndex)/2;
+        long startKey = key(startIndex);
+        long middleKey = key(middleIndex);
+        long endKey = key(endIndex);
+
+        //select the median key as the pivot
+        int pivotIndex = middleIndex;
+        long pivotKey = middleKey;
+        if (startKey < middleKey) {
+            if (endKey < startKey) {
+                pivotIndex = startIndex;
+                pivotKey = startKey;
+            }
+            else if (endKey < middleKey) {
+                pivotIndex = endIndex;
+                pivotKey = endKey;
+            }
+        }
+        else if (endKey > middleKey) {
+            if (endKey < startKey) {
+                pivotIndex = endIndex;
+                pivotKey = endKey;
+            }
+            else {
+                pivotIndex = startIndex;
+                pivotKey = startKey;
+            }
+        }
+
+        if ((pivotIndex != startIndex && startKey == pivotKey) || (pivotIndex != endIndex && endKey == pivotKey)) {
+            //Dutch national flag partition when the samples suggest many duplicate keys
+            int less = startIndex;
+            int greater = endIndex;
+            int i = startIndex;
+            while (i <= greater) {
+                long key = key(i);
+                if (key < pivotKey)
+                    swap(less++, i++);
+                else if (key > pivotKey)
+                    swap(i, greater--);
+                else
+                    i++;
+            }
+            return bounds(less - 1, greater + 1);
+        }
+
+        swap(pivotIndex, endIndex);
+        int swapIndex = startIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (key(i) < pivotKey) {
+                swap(i, swapIndex);
+                swapIndex++;
+            }
+        }
+        swap(swapIndex, endIndex);
+        return bounds(swapIndex - 1, swapIndex + 1);
+    }
+
+    private static long bounds(int lowEnd, int highStart) {
+        return ((long) lowEnd << 32) | (highStart & 0xFFFFFFFFL);
+    }
+
+    private void heapSort(int startIndex, int endIndex) {
+        int size = endIndex - startIndex + 1;
+        for (int i = size / 2 - 1; i >= 0; i--)
+            siftDown(startIndex, i, size);
+
+        for (int last = size - 1; last > 0; last--) {
+            swap(startIndex, startIndex + last);
+            siftDown(startIndex, 0, last);
+        }
+    }
+
+    private void siftDown(int offset, int root, int size) {
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && key(offset + child) < key(offset + child + 1))
+                child++;
+            if (key(offset + root) >= key(offset + child))
+                return;
+
+            swap(offset + root, offset + child);
+            root = child;
+        }
+    }
+
+    private void insertionSort(int startIndex, int endIndex) {
+        for (int i = startIndex + 1; i <= endIndex; i++) {
+            long key = key(i);
+            for (int j = i; j > startIndex && key(j - 1) > key; j--)
+                swap(j - 1, j);
+        }
+    }
+
+    /**
+     * @return the key of the record as a long whose signed order is the order of the keys
+     */
+    private long key(int index) {
+        int position = m_base + index * m_recordWidth + m_keyOffset;
+        switch (m_keyType) {
+            case INT:
+                return m_buffer.getInt(position);
+            case LONG:
+                return m_buffer.getLong(position);
+            default:
+                return RadixSort.sortableBits(m_buffer.getDouble(position));
+        }
+    }
+
+    private void swap(int i, int j) {
+        int first = m_base + i * m_recordWidth;
+        int second = m_base + j * m_recordWidth;
+        int end = first + m_recordWidth;
+        for (; first + 8 <= end; first += 8, second += 8) {
+            long value = m_buffer.getLong(first);
+            m_buffer.putLong(first, m_buffer.getLong(second));
+            m_buffer.putLong(second, value);
+        }
+        for (; first < end; first++, second++) {
+            byte value = m_buffer.get(first);
+            m_buffer.put(first, m_buffer.get(second));
+            m_buffer.put(second, value);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Comparator;
+
+/**
+ * Kernels for inputs too small for the bookkeeping of the other sorts to pay off. Objects are sorted with a binary
+ * insertion sort, which finds each insertion point in log(n) comparisons and shifts the larger elements along with a
+ * single {@link System#arraycopy(Object, int, Object, int, int)}. Primitive arrays of up to
+ * {@link #NETWORK_MAX_LENGTH} elements are sorted with a fixed sorting network, a branch free sequence of
+ * compare-exchanges chosen only by the length of the array.
+ */
+final class SmallSort {
+    //Ranges smaller than this are insertion sorted by the other kernels
+    static final int INSERTION_SORT_THRESHOLD = 16;
+    //The longest primitive array with a sorting network
+    static final int NETWORK_MAX_LENGTH = 16;
+
+    //NETWORKS[n] holds the compare-exchange index pairs sorting n elements, flattened
+    private static final int[][] NETWORKS = new int[NETWORK_MAX_LENGTH + 1][];
+
+    static {
+        for (int length = 0; length <= NETWORK_MAX_LENGTH; length++)
+            NETWORKS[length] = network(length);
+    }
+
+    private SmallSort() {
+    }
+
+    /**
+     * Sorts the array from startIndex to endIndex, both inclusive. Equal elements keep their order.
+     * @return the amount of elements shifted
+     */
+    static <T> long insertionSort(T[] array, Comparator<? super T> comparator, int startIndex, int endIndex) {
+        return insertionSort(array, null, comparator, startIndex, endIndex);
+    }
+
+    /**
+     * Sorts the keys from startIndex to endIndex, both inclusive, moving the item at the same index along with each
+     * key. Equal keys keep their order.
+     * @param items the items to be moved with the keys or null if there are none
+     * @return the amount of keys shifted
+     */
+    static <K> long insertionSort(K[] keys, Object[] items, Comparator<? super K> comparator, int startIndex, int endIndex) {
+        long moves = 0;
+        for (int i = startIndex + 1; i <= endIndex; i++) {
+            K key = keys[i];
+            //Already in place, which is the common case for nearly sorted input
+            if (comparator.compare(keys[i - 1], key) <= 0)
+                continue;
+
+            //The first element greater than key, so equal keys stay in front of it
+            int low = startIndex;
+            int high = i - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(keys[middle], key) <= 0)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            System.arraycopy(keys, low, keys, low + 1, i - low);
+            keys[low] = key;
+            moves += i - low;
+            if (items != null) {
+                Object item = items[i];
+                System.arraycopy(items, low, items, low + 1, i - low);
+                items[low] = item;
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Sorts an array of at most {@link #NETWORK_MAX_LENGTH} elements.
+     */
+    static void sort(int[] array) {
+        int[] network = NETWORKS[array.length];
+        for (int i = 0; i < network.length; i += 2) {
+            int low = array[network[i]];
+            int high = array[network[i + 1]];
+            array[network[i]] = Math.min(low, high);
+            array[network[i + 1]] = Math.max(low, high);
+        }
+    }
+
+    /**
+     * Sorts an array of at most {@link #NETWORK_MAX_LENGTH} elements.
+     */
+    static void sort(long[] array) {
+        int[] network = NETWORKS[array.length];
+        for (int i = 0; i < network.length; i += 2) {
+            long low = array[network[i]];
+            long high = array[network[i + 1]];
+            array[network[i]] = Math.min(low, high);
+            array[network[i + 1]] = Math.max(low, high);
+        }
+    }
+
+    /**
+     * Builds Batcher's odd-even merge sort network for {@link #NETWORK_MAX_LENGTH} elements and keeps the
+     * compare-exchanges within the first length elements. The dropped ones would only ever compare against padding
+     * larger than every element, which never moves.
+     */
+    private static int[] network(int length) {
+        int[] pairs = new int[NETWORK_MAX_LENGTH * NETWORK_MAX_LENGTH];
+        int size = 0;
+        for (int p = 1; p < NETWORK_MAX_LENGTH; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < NETWORK_MAX_LENGTH; j += 2 * k) {
+                    for (int i = 0; i < k && i + j + k < NETWORK_MAX_LENGTH; i++) {
+                        int low = i + j;
+                        int high = i + j + k;
+                        if (low / (2 * p) == high / (2 * p) && high < length) {
+                            pairs[size++] = low;
+                            pairs[size++] = high;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] network = new int[size];
+        System.arraycopy(pairs, 0, network, 0, size);
+        return network;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The algorithms {@link SortUtility#sort(List)} and {@link SortUtility#sort(List, Comparator)} choose between.
+ */
+public enum SortAlgorithm {
+    /**
+     * The list had fewer than two elements so there was nothing to sort.
+     */
+    NONE,
+    /**
+     * {@link SortUtility#insertionSort(List, Comparator)}, for small lists.
+     */
+    INSERTION,
+    /**
+     * {@link SortUtility#merge(List, Comparator)}, for lists that are mostly in ascending or descending runs.
+     */
+    MERGE,
+    /**
+     * {@link SortUtility#count(List)}, for naturally ordered lists with few unique values.
+     */
+    COUNT,
+    /**
+     * {@link SortUtility#quickSort(List, Comparator, int, int)}, for everything else.
+     */
+    QUICK
+}
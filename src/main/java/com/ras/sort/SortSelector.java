@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.*;
+
+/**
+ * Chooses a {@link SortAlgorithm} from a small evenly spaced sample of the list rather than the whole list. Each
+ * sampled element is compared with its neighbour to estimate how much of the list is already in runs, and the
+ * sampled elements are gathered into a hash set to estimate how many unique values the list holds. The sample costs a
+ * fixed number of comparisons and hash lookups whatever the size of the list.
+ */
+final class SortSelector {
+    //The amount of neighbouring pairs sampled
+    private static final int SAMPLE_SIZE = 256;
+    //Fewer than one pair in this many out of order suggests long runs
+    private static final int RUN_RATIO = 8;
+    //Fewer than one unique value in this many sampled suggests few unique values overall
+    private static final int DUPLICATE_RATIO = 4;
+    //Classes whose equals and hashCode agree with their natural ordering, which count sort relies on
+    private static final Set<Class<?>> COUNTABLE_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Integer.class, Long.class, Short.class, Byte.class, Character.class, Boolean.class));
+
+    private SortSelector() {
+    }
+
+    /**
+     * @param countable whether the comparator is the natural ordering, so count sort may be chosen
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SortAlgorithm choose(List<T> list, Comparator<? super T> comparator, boolean countable) {
+        int size = list.size();
+        if (size < 2)
+            return SortAlgorithm.NONE;
+        else if (size < SmallSort.INSERTION_SORT_THRESHOLD)
+            return SortAlgorithm.INSERTION;
+
+        int samples = Math.min(SAMPLE_SIZE, size - 1);
+        Object[] pairs = samplePairs(list, samples);
+        int ascending = 0;
+        int descending = 0;
+        Set<Object> uniques = countable ? new HashSet<Object>() : null;
+        for (int s = 0; s < samples; s++) {
+            T value = (T) pairs[2 * s];
+            int compare = comparator.compare(value, (T) pairs[2 * s + 1]);
+            if (compare < 0)
+                ascending++;
+            else if (compare > 0)
+                descending++;
+
+            if (uniques != null) {
+                if (value == null || (!COUNTABLE_CLASSES.contains(value.getClass()) && !(value instanceof Enum)))
+                    uniques = null;
+                else
+                    uniques.add(value);
+            }
+        }
+
+        if (descending * RUN_RATIO < samples || ascending * RUN_RATIO < samples)
+            return SortAlgorithm.MERGE;
+        else if (uniques != null && uniques.size() * DUPLICATE_RATIO <= samples)
+            return SortAlgorithm.COUNT;
+        else
+            return SortAlgorithm.QUICK;
+    }
+
+    /**
+     * Reads samples evenly spaced elements and the element after each of them. The indexes never decrease, so lists
+     * without random access are walked once instead of being searched from the start for every element.
+     */
+    private static Object[] samplePairs(List<?> list, int samples) {
+        int size = list.size();
+        Object[] pairs = new Object[2 * samples];
+        if (list instanceof RandomAccess) {
+            for (int s = 0; s < samples; s++) {
+                int i = (int) ((long) s * (size - 1) / samples);
+                pairs[2 * s] = list.get(i);
+                pairs[2 * s + 1] = list.get(i + 1);
+            }
+            return pairs;
+        }
+
+        Iterator<?> iterator = list.iterator();
+        Object value = iterator.next();
+        int position = 0;
+        for (int p = 0; p < pairs.length; p++) {
+            int index = (int) ((long) (p / 2) * (size - 1) / samples) + p % 2;
+            for (; position < index; position++)
+                value = iterator.next();
+            pairs[p] = value;
+        }
+        return pairs;
+    }
+}
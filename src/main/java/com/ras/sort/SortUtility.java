@@ -15,25 +15,216 @@
  */
 package com.ras.sort;
 
-import com.ras.sort.bucket.Bucket;
-import com.ras.sort.bucket.IBucketProvider;
+import com.ras.sort.bucket.*;
+import com.ras.sort.key.IDoubleKeyExtractor;
+import com.ras.sort.key.IIntKeyExtractor;
+import com.ras.sort.key.IKeyExtractor;
+import com.ras.sort.key.ILongKeyExtractor;
+import com.ras.sort.metrics.ISortListener;
+import com.ras.sort.metrics.SortPhase;
+import com.ras.sort.record.RecordKeyType;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Created by RAS on 4/23/2014.
  */
 public class SortUtility {
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements, choosing the
+     * algorithm from a sample of the list. Unlike {@link #sort(List, Comparator)} this may choose
+     * {@link SortAlgorithm#COUNT} when the sample is made of strings, boxed primitives or enums with few unique
+     * values, since their equals and hashCode agree with their natural ordering.
+     * @param list the list of comparable objects to be sorted
+     * @return the algorithm that sorted the list
+     */
+    public static <T extends Comparable<? super T>> SortAlgorithm sort(List<T> list) {
+        if (list == null)
+            return SortAlgorithm.NONE;
+
+        SortAlgorithm algorithm = SortSelector.choose(list, new ComparableComparator<T>(), true);
+        if (algorithm == SortAlgorithm.COUNT)
+            count(list);
+        else
+            sort(list, new ComparableComparator<T>(), algorithm);
+        return algorithm;
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the order induced by the specified comparator,
+     * choosing the algorithm from a sample of the list.
+     *
+     * This sort is not stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * Up to 256 evenly spaced elements are compared with their neighbours. Lists under 16 elements use
+     * {@link #insertionSort(List, Comparator)}. Lists where fewer than one sampled pair in 8 is out of order, or in
+     * order, are mostly made of ascending or descending runs and use {@link #merge(List, Comparator)}. Everything else
+     * uses {@link #quickSort(List, Comparator, int, int)}, whose three way partition already handles many duplicates.
+     * The sample costs a fixed amount of work on lists with random access and a single walk on other lists. Use
+     * {@link #chooseAlgorithm(List, Comparator)} to get the decision without sorting.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     * @return the algorithm that sorted the list
+     */
+    public static <T> SortAlgorithm sort(List<T> list, Comparator<T> comparator) {
+        if (list == null)
+            return SortAlgorithm.NONE;
+
+        SortAlgorithm algorithm = SortSelector.choose(list, comparator, false);
+        sort(list, comparator, algorithm);
+        return algorithm;
+    }
+
+    /**
+     * Returns the algorithm {@link #sort(List)} would choose for the specified list, without sorting it.
+     * @param list the list of comparable objects to be sorted
+     * @return the algorithm that would sort the list
+     */
+    public static <T extends Comparable<? super T>> SortAlgorithm chooseAlgorithm(List<T> list) {
+        return list == null ? SortAlgorithm.NONE : SortSelector.choose(list, new ComparableComparator<T>(), true);
+    }
+
+    /**
+     * Returns the algorithm {@link #sort(List, Comparator)} would choose for the specified list, without sorting it.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     * @return the algorithm that would sort the list
+     */
+    public static <T> SortAlgorithm chooseAlgorithm(List<T> list, Comparator<T> comparator) {
+        return list == null ? SortAlgorithm.NONE : SortSelector.choose(list, comparator, false);
+    }
+
+    private static <T> void sort(List<T> list, Comparator<T> comparator, SortAlgorithm algorithm) {
+        if (algorithm == SortAlgorithm.INSERTION)
+            insertionSort(list, comparator);
+        else if (algorithm == SortAlgorithm.MERGE)
+            merge(list, comparator);
+        else if (algorithm == SortAlgorithm.QUICK)
+            quickSort(list, comparator, 0, list.size() - 1);
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements. See
+     * {@link #merge(List, Comparator)}.
+     * @param list the list of comparable objects to be sorted
+     */
     public static <T extends Comparable<? super T>> void merge(List<T> list) {
         //Standard java uses merge sort
         Collections.sort(list);
     }
 
+    /**
+     * Sorts the specified list into ascending order, according to the order induced by the specified comparator.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is the adaptive merge sort of {@link Collections#sort(List, Comparator)}. It finds the runs
+     * already present in the list, reverses descending runs, and merges neighbouring runs with galloping so a run
+     * that falls wholly before or after the other is copied in O(log(n)) comparisons. This algorithm has a guaranteed
+     * O(n log(n)) performance, and needs far fewer than n log(n) comparisons on partially sorted lists, down to n - 1
+     * on a list that is already sorted or reversed. A sorted list with a few items appended is better served by
+     * {@link #mergeSortedBatch(List, Collection, Comparator)}.
+     * @param list the list to be sorted
+     * @param c the comparator to determine the order of the list
+     */
     public static <T> void merge(List<T> list, Comparator<? super T> c) {
         //Standard java uses merge sort
         Collections.sort(list, c);
     }
 
+    /**
+     * Sorts the specified list like {@link #merge(List, Comparator)}, reporting the comparisons and the time spent
+     * sorting to the listener. The moves made inside {@link Collections#sort(List, Comparator)} are not visible so
+     * none are reported.
+     * @param list the list to be sorted
+     * @param c the comparator to determine the order of the list
+     * @param listener the listener to report to
+     */
+    public static <T> void merge(List<T> list, Comparator<? super T> c, ISortListener listener) {
+        listener.phaseStarted(SortPhase.SORT);
+        merge(list, CountingComparator.wrap(c, listener));
+        listener.phaseFinished(SortPhase.SORT);
+    }
+
+    /**
+     * Adds newItems to the specified list, which must already be sorted according to the natural ordering of its
+     * elements, keeping it sorted. See {@link #mergeSortedBatch(List, Collection, Comparator)}.
+     * @param sortedList the sorted list to add to
+     * @param newItems the items to add
+     */
+    public static <T extends Comparable<? super T>> void mergeSortedBatch(List<T> sortedList, Collection<? extends T> newItems) {
+        mergeSortedBatch(sortedList, newItems, new ComparableComparator<T>());
+    }
+
+    /**
+     * Adds newItems to the specified list, which must already be sorted according to the order induced by the
+     * specified comparator, keeping it sorted. Each new item ends up after every existing item that compares equal to
+     * it.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable and resizable.
+     *
+     * Only the batch is sorted, using {@link #merge(List, Comparator)}. The smallest new item is then located in the
+     * list, by binary search when the list is {@link RandomAccess} or by walking back from the end otherwise, and the
+     * tail of the list from that point is merged with the batch in a single linear pass. This algorithm has O(m log(m)
+     * + t + log(n)) performance where m is the amount of new items and t is the length of the tail that had to move,
+     * compared with O((n + m) log(n + m)) for sorting the combined list again.
+     * @param sortedList the sorted list to add to
+     * @param newItems the items to add
+     * @param comparator the comparator the list is sorted by
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void mergeSortedBatch(List<T> sortedList, Collection<? extends T> newItems, Comparator<? super T> comparator) {
+        if (sortedList == null)
+            throw new IllegalArgumentException("The sortedList parameter cannot be null.");
+        else if (newItems == null || newItems.isEmpty())
+            return;
+
+        List<T> batch = new ArrayList<T>(newItems);
+        merge(batch, comparator);
+
+        //Everything before start is no greater than the smallest new item and stays where it is
+        T first = batch.get(0);
+        int start = sortedList.size();
+        if (sortedList instanceof RandomAccess) {
+            int low = 0;
+            while (low < start) {
+                int middle = (low + start) >>> 1;
+                if (comparator.compare(sortedList.get(middle), first) <= 0)
+                    low = middle + 1;
+                else
+                    start = middle;
+            }
+        }
+        else {
+            ListIterator<T> iterator = sortedList.listIterator(start);
+            while (iterator.hasPrevious() && comparator.compare(iterator.previous(), first) > 0)
+                start--;
+        }
+
+        List<T> tail = sortedList.subList(start, sortedList.size());
+        Object[] existing = tail.toArray();
+        Object[] merged = new Object[existing.length + batch.size()];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == batch.size() || (i < existing.length && comparator.compare((T) existing[i], batch.get(j)) <= 0))
+                merged[k] = existing[i++];
+            else
+                merged[k] = batch.get(j++);
+        }
+
+        tail.clear();
+        sortedList.addAll((List<T>) Arrays.asList(merged));
+    }
+
     /**
      * Sorts the specified list into ascending order, according to the natural ordering of its elements. All elements
      * in the list must implement the Comparable interface. Furthermore, all elements in the list must be mutually
@@ -51,17 +242,90 @@ public class SortUtility {
      * @param list the list of comparable objects to be sorted
      */
     public static <T extends Comparable<? super T>> void count(List<T> list) {
+        count(list, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #count(List)}, reporting the unique item count, the comparisons made
+     * sorting the unique items, the elements written back and the time spent in each phase to the listener.
+     * @param list the list of comparable objects to be sorted
+     * @param listener the listener to report to
+     */
+    public static <T extends Comparable<? super T>> void count(List<T> list, ISortListener listener) {
+        count(list, listener, new SortWorkspace());
+    }
+
+    /**
+     * Sorts the specified list like {@link #count(List)}, counting into the table and arrays of the workspace instead
+     * of allocating new ones. Once the workspace has grown to fit the list, sorting allocates nothing.
+     * @param list the list of comparable objects to be sorted
+     * @param workspace the workspace to reuse, such as {@link SortWorkspace#forCurrentThread()}
+     */
+    public static <T extends Comparable<? super T>> void count(List<T> list, SortWorkspace workspace) {
+        if (workspace == null)
+            throw new IllegalArgumentException("The workspace parameter cannot be null.");
+
+        count(list, ISortListener.NONE, workspace);
+    }
+
+    private static <T extends Comparable<? super T>> void count(List<T> list, ISortListener listener, SortWorkspace workspace) {
         if (list == null || list.isEmpty())
             return;
 
-        HashMap<T, Integer> counts = new HashMap<T, Integer>();
-        NullCountZeroHandler<T> handler = new NullCountZeroHandler<T>();
-        countGenerator(list, counts, handler);
+        CountTable<T> counts = workspace.counts();
+        try {
+            listener.phaseStarted(SortPhase.COUNT);
+            countGenerator(list, counts, new NullCountZeroHandler<T>());
+            listener.phaseFinished(SortPhase.COUNT);
+            listener.distinctKeys(counts.size());
+
+            listener.phaseStarted(SortPhase.KEY_SORT);
+            //Without a listener the keys are sorted by their natural ordering directly
+            Comparator<T> keyComparator = listener == ISortListener.NONE ? null :
+                    CountingComparator.wrap(new ComparableComparator<T>(), listener);
+            int[] order = countSortedOrder(counts, keyComparator, workspace);
+            listener.phaseFinished(SortPhase.KEY_SORT);
+
+            listener.phaseStarted(SortPhase.REWRITE);
+            countResetList(list, counts, order);
+            listener.moved(list.size());
+            listener.phaseFinished(SortPhase.REWRITE);
+        }
+        finally {
+            //A failed sort must not leave its keys in the shared table for the next sort to find
+            workspace.release(counts.size());
+        }
+    }
 
-        ArrayList<T> keys = handler.getKeys();
-        Collections.sort(keys);
+    /**
+     * Counts the specified values into a histogram of the unique values in ascending order, according to their natural
+     * ordering, with how many times each occurs. All values that are considered the same must have the same
+     * {@link Object#hashCode()}.
+     *
+     * This is the count sort of {@link #count(List)} without writing the sorted values back, for when only the
+     * distribution is needed. The values are read once and only the unique values are held, so the values may come
+     * from any source too large to be held in a list. Use a {@link CountAccumulator} to add values as they arrive.
+     * This algorithm has a guaranteed O(n) + O(k log(k)) performance where k is the amount of unique values.
+     * @param values the values to be counted
+     * @return the histogram of the values
+     */
+    public static <T extends Comparable<? super T>> CountHistogram<T> countHistogram(Iterable<T> values) {
+        return countHistogram(values, null);
+    }
 
-        countResetList(list, counts, keys);
+    /**
+     * Counts the specified values into a histogram of the unique values in ascending order, according to the order
+     * induced by the specified comparator. See {@link #countHistogram(Iterable)}.
+     * @param values the values to be counted
+     * @param comparator the comparator to determine the order of the unique values or null to use their natural
+     *                   ordering
+     * @return the histogram of the values
+     */
+    public static <T> CountHistogram<T> countHistogram(Iterable<T> values, Comparator<? super T> comparator) {
+        CountAccumulator<T> accumulator = new CountAccumulator<T>(comparator);
+        if (values != null)
+            accumulator.addAll(values);
+        return accumulator.build();
     }
 
     /**
@@ -74,42 +338,226 @@ public class SortUtility {
      * The specified list must be modifiable, but need not be resizable.
      *
      * The sorting algorithm is a count sort. Each unique item (specified by {@link Object#hashCode()} and provided by
-     * orderedUniques) is counted how many times it appears. This algorithm has a guaranteed O(n) performance.
+     * orderedUniques) is counted how many times it appears. This algorithm has a guaranteed O(n) performance. When
+     * orderedUniques are all constants of one enum the elements are counted by their {@link Enum#ordinal()} without
+     * hashing, see {@link EnumSort#count(List, Collection)}.
      * @param list The list of objects to be sorted
      * @param orderedUniques A collection of unique objects found in the list in the order they should be sorted
      */
     public static <T> void count(List<T> list, Collection<T> orderedUniques) {
+        count(list, orderedUniques, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #count(List, Collection)}, reporting the unique item count, the elements
+     * written back and the time spent in each phase to the listener.
+     * @param list The list of objects to be sorted
+     * @param orderedUniques A collection of unique objects found in the list in the order they should be sorted
+     * @param listener the listener to report to
+     */
+    public static <T> void count(List<T> list, Collection<T> orderedUniques, ISortListener listener) {
         if (list == null || list.isEmpty())
             return;
         else if (orderedUniques == null || orderedUniques.isEmpty())
             throw new IllegalArgumentException("The orderedUniques parameter must contain data.");
 
-        HashMap<T, Integer> counts = new HashMap<T, Integer>();
+        Class<?> enumClass = EnumSort.enumClassOf(orderedUniques);
+        if (enumClass != null) {
+            EnumSort.countOrderedUniques(list, orderedUniques, enumClass, listener);
+            return;
+        }
 
+        listener.phaseStarted(SortPhase.COUNT);
+        CountTable<T> counts = new CountTable<T>(orderedUniques.size());
         for (T key: orderedUniques)
-            counts.put(key, Integer.valueOf(0));
+            counts.add(key);
 
-        INullCountHandler handler = new NullCountExceptionHandler();
-        countGenerator(list, counts, handler);
+        countGenerator(list, counts, new NullCountExceptionHandler<T>());
+        listener.phaseFinished(SortPhase.COUNT);
+        listener.distinctKeys(counts.size());
 
-        countResetList(list, counts, orderedUniques);
+        listener.phaseStarted(SortPhase.REWRITE);
+        countResetList(list, counts, countUniquesOrder(counts));
+        listener.moved(list.size());
+        listener.phaseFinished(SortPhase.REWRITE);
     }
 
-    private static <T> void countGenerator(List<T> list, HashMap<T, Integer> counts, INullCountHandler handler) {
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements. The same
+     * requirements as {@link #count(List)} apply to the elements.
+     *
+     * This sort is stable. Unlike {@link #count(List)}, every element keeps its own instance, so elements that are
+     * equal but distinct objects such as records are sorted as they are.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a count sort. Each element is given the index of its unique item while the unique items
+     * are counted. The unique items are sorted using {@link Arrays#sort(Object[])}, their counts give the output range
+     * of each unique item, and the elements are scattered into those ranges in one pass. This algorithm has a
+     * guaranteed O(n) + O(k log(k)) performance where n is the amount of elements in the list and k is the amount of
+     * unique elements in the list.
+     * @param list the list of comparable objects to be sorted
+     */
+    public static <T extends Comparable<? super T>> void stableCount(List<T> list) {
+        stableCount(list, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #stableCount(List)}, reporting the unique item count, the comparisons made
+     * sorting the unique items, the elements scattered and the time spent in each phase to the listener.
+     * @param list the list of comparable objects to be sorted
+     * @param listener the listener to report to
+     */
+    public static <T extends Comparable<? super T>> void stableCount(List<T> list, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+
+        listener.phaseStarted(SortPhase.COUNT);
+        CountTable<T> counts = new CountTable<T>(0);
+        Object[] items = list.toArray();
+        int[] keyIndexes = countGenerator(items, counts, new NullCountZeroHandler<T>());
+        listener.phaseFinished(SortPhase.COUNT);
+        listener.distinctKeys(counts.size());
+
+        listener.phaseStarted(SortPhase.KEY_SORT);
+        //Without a listener the keys are sorted by their natural ordering directly
+        Comparator<T> keyComparator = listener == ISortListener.NONE ? null :
+                CountingComparator.wrap(new ComparableComparator<T>(), listener);
+        int[] order = countSortedOrder(counts, keyComparator, new SortWorkspace());
+        listener.phaseFinished(SortPhase.KEY_SORT);
+
+        listener.phaseStarted(SortPhase.REWRITE);
+        countScatterList(list, items, keyIndexes, counts, order);
+        listener.moved(items.length);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * Sorts the specified list into the order provided by orderedUniques. The same requirements as
+     * {@link #count(List, Collection)} apply to the elements.
+     *
+     * This sort is stable. Unlike {@link #count(List, Collection)}, every element keeps its own instance, so elements
+     * that are equal but distinct objects such as records are sorted as they are.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a count sort. Each element is given the index of its unique item in orderedUniques while
+     * the unique items are counted. Their counts give the output range of each unique item and the elements are
+     * scattered into those ranges in one pass. This algorithm has a guaranteed O(n) performance.
+     * @param list The list of objects to be sorted
+     * @param orderedUniques A collection of unique objects found in the list in the order they should be sorted
+     */
+    public static <T> void stableCount(List<T> list, Collection<T> orderedUniques) {
+        stableCount(list, orderedUniques, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #stableCount(List, Collection)}, reporting the unique item count, the
+     * elements scattered and the time spent in each phase to the listener.
+     * @param list The list of objects to be sorted
+     * @param orderedUniques A collection of unique objects found in the list in the order they should be sorted
+     * @param listener the listener to report to
+     */
+    public static <T> void stableCount(List<T> list, Collection<T> orderedUniques, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (orderedUniques == null || orderedUniques.isEmpty())
+            throw new IllegalArgumentException("The orderedUniques parameter must contain data.");
+
+        listener.phaseStarted(SortPhase.COUNT);
+        CountTable<T> counts = new CountTable<T>(orderedUniques.size());
+        for (T key: orderedUniques)
+            counts.add(key);
+
+        Object[] items = list.toArray();
+        int[] keyIndexes = countGenerator(items, counts, new NullCountExceptionHandler<T>());
+        listener.phaseFinished(SortPhase.COUNT);
+        listener.distinctKeys(counts.size());
+
+        listener.phaseStarted(SortPhase.REWRITE);
+        countScatterList(list, items, keyIndexes, counts, countUniquesOrder(counts));
+        listener.moved(items.length);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * @param comparator the order of the keys or null to use their natural ordering
+     * @return the dense indexes of the counted keys in sorted order, followed by unused space
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> int[] countSortedOrder(CountTable<T> counts, Comparator<? super T> comparator, SortWorkspace workspace) {
+        int size = counts.size();
+        Object[] keys = workspace.keys(size);
+        counts.copyKeys(keys);
+        Arrays.sort(keys, 0, size, (Comparator<Object>) comparator);
+
+        int[] order = workspace.offsets(size);
+        for (int i = 0; i < size; i++)
+            order[i] = counts.indexOf(keys[i]);
+        return order;
+    }
+
+    /**
+     * @return the dense indexes of the counted keys in the order they were added
+     */
+    private static <T> int[] countUniquesOrder(CountTable<T> counts) {
+        //The uniques were added in order so their dense indexes are already sorted
+        int[] order = new int[counts.size()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        return order;
+    }
+
+    private static <T> void countGenerator(List<T> list, CountTable<T> counts, INullCountHandler<T> handler) {
         for (T item: list) {
-            Integer count = counts.get(item);
-            if (count == null)
-                count = handler.countNull(item);
+            int index = counts.indexOf(item);
+            if (index < 0)
+                index = handler.countNull(counts, item);
+
+            counts.increment(index);
+        }
+    }
 
-            count = Integer.valueOf(count.intValue() + 1);
-            counts.put(item, count);
+    /**
+     * @return the dense index of the key of each item
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> int[] countGenerator(Object[] items, CountTable<T> counts, INullCountHandler<T> handler) {
+        int[] keyIndexes = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            int index = counts.indexOf(items[i]);
+            if (index < 0)
+                index = handler.countNull(counts, (T) items[i]);
+
+            counts.increment(index);
+            keyIndexes[i] = index;
+        }
+        return keyIndexes;
+    }
+
+    private static <T> void countScatterList(List<T> list, Object[] items, int[] keyIndexes, CountTable<T> counts, int[] order) {
+        //offsets[index] is the next output index of the key with that dense index
+        int[] offsets = new int[counts.size()];
+        int offset = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            int index = order[i];
+            offsets[index] = offset;
+            offset += counts.getCount(index);
         }
+
+        Object[] sorted = new Object[items.length];
+        for (int i = 0; i < items.length; i++)
+            sorted[offsets[keyIndexes[i]]++] = items[i];
+
+        ListArrays.writeBack(list, 0, sorted);
     }
 
-    private static <T> void countResetList(List<T> list, HashMap<T, Integer> counts, Collection<T> orderedUniques) {
+    private static <T> void countResetList(List<T> list, CountTable<T> counts, int[] order) {
         ListIterator<T> iterator = list.listIterator();
-        for (T key: orderedUniques) {
-            int count = counts.get(key).intValue();
+        for (int k = 0; k < counts.size(); k++) {
+            int index = order[k];
+            T key = counts.getKey(index);
+            int count = counts.getCount(index);
             for (int i = 0; i < count; i++) {
                 iterator.next();
                 iterator.set(key);
@@ -118,73 +566,508 @@ public class SortUtility {
     }
 
     private static interface INullCountHandler<T> {
-        public Integer countNull(T item);
+        public int countNull(CountTable<T> counts, T item);
     }
 
     private static class NullCountZeroHandler<T> implements INullCountHandler<T> {
-        private ArrayList<T> keys = new ArrayList<T>();
-
         @Override
-        public Integer countNull(T item) {
-            //If the value is null return a 0
-            keys.add(item);
-            return Integer.valueOf(0);
-        }
-
-        private ArrayList<T> getKeys() {
-            return keys;
+        public int countNull(CountTable<T> counts, T item) {
+            //If the value is null add it with a count of 0
+            return counts.add(item);
         }
     }
 
     private static class NullCountExceptionHandler<T> implements INullCountHandler<T> {
         @Override
-        public Integer countNull(T item) {
+        public int countNull(CountTable<T> counts, T item) {
             //If value is null throw an exception
             throw new IllegalArgumentException(item + " is not present in the orderedUniques parameter.");
         }
     }
 
     /**
-     * Sorts the specified list into ascending order, according to the order provided by orderedUniques. All elements
-     * in the list must have a representative value in orderedUniques. All elements that are considered the same value
-     * must have the same {@link Object#hashCode()} across the list and orderedUniques.
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements, using every
+     * worker of the common {@link ForkJoinPool}. See {@link #parallelCount(List, ForkJoinPool)}.
+     * @param list the list of comparable objects to be sorted
+     */
+    public static <T extends Comparable<? super T>> void parallelCount(List<T> list) {
+        parallelCount(list, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements. The same
+     * requirements as {@link #count(List)} apply to the elements.
      *
      * This sort is not stable.
      *
+     * The specified list must be modifiable, but need not be resizable. A {@link RandomAccess} list is sorted in
+     * parallel, which requires {@link List#set(int, Object)} to be safe to call from several threads for different
+     * indexes as it is for {@link ArrayList} and {@link Arrays#asList(Object[])}. Any other list, or a list too small to
+     * benefit from forking, is sorted by {@link #count(List)} on the calling thread.
+     *
+     * The sorting algorithm is a count sort. The list is split into chunks which are counted on the workers of the pool,
+     * the per chunk counts are merged and the unique items are sorted once using {@link Arrays#sort(Object[])}. Each
+     * worker then rewrites a disjoint range of the list. This algorithm has a guaranteed O(n/p) + O(k log(k))
+     * performance where n is the amount of elements in the list, p is the parallelism of the pool and k is the amount
+     * of unique elements in the list.
+     * @param list the list of comparable objects to be sorted
+     * @param pool the pool whose workers count and rewrite the list
+     */
+    public static <T extends Comparable<? super T>> void parallelCount(List<T> list, ForkJoinPool pool) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (pool == null)
+            throw new IllegalArgumentException("The pool parameter cannot be null.");
+
+        if (!(list instanceof RandomAccess) || list.size() <= ParallelCountSort.SEQUENTIAL_THRESHOLD)
+            count(list);
+        else
+            ParallelCountSort.sort(list, pool);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a count sort. When the range between the smallest and largest value is small compared
+     * to the array length every value is counted into a flat histogram, otherwise into an open addressing hash table of
+     * primitives and only the unique values are sorted. No value is boxed and the array is rewritten in place. This
+     * algorithm has a guaranteed O(n + r) performance for a dense range r, or O(n) + O(k log(k)) where k is the amount
+     * of unique values in the array. Arrays of 16 or fewer values are sorted with a fixed sorting network instead.
+     * @param array the array to be sorted
+     */
+    public static void count(int[] array) {
+        if (array == null || array.length == 0)
+            return;
+
+        PrimitiveCountSort.sort(array);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a count sort. When the range between the smallest and largest value is small compared
+     * to the array length every value is counted into a flat histogram, otherwise into an open addressing hash table of
+     * primitives and only the unique values are sorted. No value is boxed and the array is rewritten in place. This
+     * algorithm has a guaranteed O(n + r) performance for a dense range r, or O(n) + O(k log(k)) where k is the amount
+     * of unique values in the array. Arrays of 16 or fewer values are sorted with a fixed sorting network instead.
+     * @param array the array to be sorted
+     */
+    public static void count(long[] array) {
+        if (array == null || array.length == 0)
+            return;
+
+        PrimitiveCountSort.sort(array);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a count sort. Every value is counted into a flat histogram covering the range between
+     * the smallest and largest value and the array is rewritten in place. This algorithm has a guaranteed O(n + r)
+     * performance where r is that range, which is never more than 65536.
+     * @param array the array to be sorted
+     */
+    public static void count(short[] array) {
+        if (array == null || array.length == 0)
+            return;
+
+        PrimitiveCountSort.sort(array);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a count sort. Every value is counted into a flat histogram covering the range between
+     * the smallest and largest value and the array is rewritten in place. This algorithm has a guaranteed O(n + r)
+     * performance where r is that range, which is never more than 65536.
+     * @param array the array to be sorted
+     */
+    public static void count(char[] array) {
+        if (array == null || array.length == 0)
+            return;
+
+        PrimitiveCountSort.sort(array);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a count sort. Every value is counted into a 256 slot histogram and the array is
+     * rewritten in place. This algorithm has a guaranteed O(n) performance.
+     * @param array the array to be sorted
+     */
+    public static void count(byte[] array) {
+        if (array == null || array.length == 0)
+            return;
+
+        PrimitiveCountSort.sort(array);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, according to the
+     * bucketComparator. All buckets that are considered the same value must be equal and have the same
+     * {@link Bucket#hashCode()}.
+     *
+     * This sort is stable.
+     *
      * The specified list must be modifiable, but need not be resizable.
      *
-     * The sorting algorithm is a count sort. Each unique item (specified by {@link Object#hashCode()} and provided by
-     * orderedUniques) is counted how many times it appears. This algorithm has a guaranteed O(n) performance.
+     * The sorting algorithm is a bucket sort. A first pass gives each element the index of its unique bucket and counts
+     * the size of each bucket. The unique buckets are sorted using the bucketComparator and their sizes give the output
+     * range of each bucket, then a second pass scatters the elements into those ranges. This algorithm has a guaranteed
+     * O(n) + O(k log(k)) performance where n is the amount of elements in the list and k is the amount of unique
+     * buckets in the list.
      * @param list the list to be sorted
      * @param bucketComparator A comparator to put the unique bucket values in correct sort order
      */
     public static <E extends IBucketProvider<T>, T> void bucket(List<E> list, Comparator<Bucket<T>> bucketComparator) {
+        bucket(list, bucketComparator, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #bucket(List, Comparator)}, reporting the unique bucket count, the
+     * comparisons made sorting the buckets, the elements moved and the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param bucketComparator A comparator to put the unique bucket values in correct sort order
+     * @param listener the listener to report to
+     */
+    public static <E extends IBucketProvider<T>, T> void bucket(List<E> list, Comparator<Bucket<T>> bucketComparator,
+                                                              ISortListener listener) {
         if (list == null || list.isEmpty())
             return;
 
-        HashMap<Bucket<T>, LinkedList<E>> buckets = new HashMap<Bucket<T>, LinkedList<E>>();
+        BucketSort.sort(list, bucketComparator, listener);
+    }
 
-        for(E item: list) {
-            Bucket<T> bucket = item.getBucket();
-            LinkedList<E> bucketList = buckets.get(bucket);
-            if (bucketList == null) {
-                bucketList = new LinkedList<E>();
-                buckets.put(bucket, bucketList);
-            }
-            bucketList.add(item);
-        }
+    /**
+     * Sorts the specified list like {@link #bucket(List, Comparator)}, grouping into the table and arrays of the
+     * workspace instead of allocating new ones. Once the workspace has grown to fit the list, sorting allocates only
+     * what {@link IBucketProvider#getBucket()} does.
+     * @param list the list to be sorted
+     * @param bucketComparator A comparator to put the unique bucket values in correct sort order
+     * @param workspace the workspace to reuse, such as {@link SortWorkspace#forCurrentThread()}
+     */
+    public static <E extends IBucketProvider<T>, T> void bucket(List<E> list, Comparator<Bucket<T>> bucketComparator,
+                                                              SortWorkspace workspace) {
+        if (workspace == null)
+            throw new IllegalArgumentException("The workspace parameter cannot be null.");
+        else if (list == null || list.isEmpty())
+            return;
 
-        ArrayList<Bucket<T>> keys = new ArrayList<Bucket<T>>(buckets.keySet());
-        Collections.sort(keys, bucketComparator);
+        BucketSort.sort(list, bucketComparator, ISortListener.NONE, workspace);
+    }
 
-        ListIterator<E> iterator = list.listIterator();
-        for (Bucket<T> key: keys) {
-            LinkedList<E> bucketList = buckets.get(key);
-            for (E item: bucketList) {
-                iterator.next();
-                iterator.set(item);
-            }
-        }
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, according to the
+     * bucketComparator, using every worker of the common {@link ForkJoinPool}. See
+     * {@link #parallelBucket(List, Comparator, ForkJoinPool)}.
+     * @param list the list to be sorted
+     * @param bucketComparator A comparator to put the unique bucket values in correct sort order
+     */
+    public static <E extends IBucketProvider<T>, T> void parallelBucket(List<E> list, Comparator<Bucket<T>> bucketComparator) {
+        parallelBucket(list, bucketComparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, according to the
+     * bucketComparator. The same requirements as {@link #bucket(List, Comparator)} apply to the buckets, and
+     * {@link IBucketProvider#getBucket()} must be safe to call from several threads at once.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable. A list too small to benefit from forking is
+     * sorted by {@link #bucket(List, Comparator)} on the calling thread.
+     *
+     * The sorting algorithm is a bucket sort. The list is split into chunks whose elements are grouped by bucket on the
+     * workers of the pool. The bucket sizes of every chunk are merged, the unique buckets are sorted once using the
+     * bucketComparator, and each chunk is given its own output range in each bucket. The workers then scatter the
+     * elements of their chunks into those ranges concurrently. This algorithm has a guaranteed O(n) + O(k log(k))
+     * performance where n is the amount of elements in the list and k is the amount of unique buckets in the list, with
+     * the grouping and scattering of the elements divided across the workers of the pool.
+     * @param list the list to be sorted
+     * @param bucketComparator A comparator to put the unique bucket values in correct sort order
+     * @param pool the pool whose workers group and scatter the list
+     */
+    public static <E extends IBucketProvider<T>, T> void parallelBucket(List<E> list, Comparator<Bucket<T>> bucketComparator, ForkJoinPool pool) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (pool == null)
+            throw new IllegalArgumentException("The pool parameter cannot be null.");
+
+        if (list.size() <= ParallelBucketSort.SEQUENTIAL_THRESHOLD)
+            BucketSort.sort(list, bucketComparator);
+        else
+            ParallelBucketSort.sort(list, bucketComparator, pool);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, comparing buckets item by
+     * item with {@link Bucket#lexicographicComparator()}. See {@link #bucket(List, Comparator)}.
+     * @param list the list to be sorted
+     */
+    public static <E extends IBucketProvider<T>, T extends Comparable<? super T>> void bucket(List<E> list) {
+        bucket(list, Bucket.<T>lexicographicComparator());
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, comparing the components of
+     * the buckets by their natural ordering. See {@link #msdBucket(List, Comparator)}.
+     * @param list the list to be sorted
+     */
+    public static <E extends IBucketProvider<T>, T extends Comparable<? super T>> void msdBucket(List<E> list) {
+        msdBucket(list, new ComparableComparator<T>());
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link Bucket} of each element, comparing buckets component
+     * by component in the same order as {@link Bucket#lexicographicComparator()}. All components that are considered
+     * the same value must be equal and have the same {@link Object#hashCode()}.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a most significant component first bucket sort. The elements are grouped by the first
+     * component of their buckets, the unique components are sorted using the itemComparator, and each group with more
+     * than one element is then grouped by the second component, and so on. Only single components are hashed and small
+     * groups are finished with an insertion sort. This algorithm has a guaranteed O(n w) + O(g k log(k)) performance
+     * where n is the amount of elements in the list, w is the amount of components of each bucket, g is the amount of
+     * groups and k is the amount of unique components within a group. Composite keys whose leading components have few
+     * unique values sort in near linear time.
+     * @param list the list to be sorted
+     * @param itemComparator A comparator to put the unique bucket components in correct sort order
+     */
+    public static <E extends IBucketProvider<T>, T> void msdBucket(List<E> list, Comparator<? super T> itemComparator) {
+        msdBucket(list, itemComparator, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #msdBucket(List, Comparator)}, reporting the comparisons, the elements
+     * scattered or shifted, the deepest component grouped and the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param itemComparator A comparator to put the unique bucket components in correct sort order
+     * @param listener the listener to report to
+     */
+    public static <E extends IBucketProvider<T>, T> void msdBucket(List<E> list, Comparator<? super T> itemComparator,
+                                                                 ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+
+        MsdBucketSort.sort(list, itemComparator, listener);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link IntBucket} of each element, comparing buckets item by
+     * item.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is the bucket sort of {@link #bucket(List, Comparator)} over primitive int buckets, so no
+     * bucket item is boxed. This algorithm has a guaranteed O(n) + O(k log(k)) performance where n is the amount of
+     * elements in the list and k is the amount of unique buckets in the list.
+     * @param list the list to be sorted
+     */
+    public static <E extends IIntBucketProvider> void intBucket(List<E> list) {
+        intBucket(list, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #intBucket(List)}, reporting the unique bucket count, the comparisons made
+     * sorting the buckets, the elements moved and the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param listener the listener to report to
+     */
+    public static <E extends IIntBucketProvider> void intBucket(List<E> list, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+
+        BucketSort.sortInt(list, listener);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the {@link LongBucket} of each element, comparing buckets item
+     * by item.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is the bucket sort of {@link #bucket(List, Comparator)} over primitive long buckets, so no
+     * bucket item is boxed. This algorithm has a guaranteed O(n) + O(k log(k)) performance where n is the amount of
+     * elements in the list and k is the amount of unique buckets in the list.
+     * @param list the list to be sorted
+     */
+    public static <E extends ILongBucketProvider> void longBucket(List<E> list) {
+        longBucket(list, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #longBucket(List)}, reporting the unique bucket count, the comparisons made
+     * sorting the buckets, the elements moved and the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param listener the listener to report to
+     */
+    public static <E extends ILongBucketProvider> void longBucket(List<E> list, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+
+        BucketSort.sortLong(list, listener);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a least significant digit radix sort over 8 bit digits. Digits that are the same for
+     * every value are skipped. This algorithm has a guaranteed O(n) performance and uses one scratch array the size of
+     * the specified array. Arrays of 16 or fewer values are sorted with a fixed sorting network instead.
+     * @param array the array to be sorted
+     */
+    public static void radix(int[] array) {
+        if (array == null || array.length < 2)
+            return;
+
+        RadixSort.sort(array, null);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * The sorting algorithm is a least significant digit radix sort over 8 bit digits. Digits that are the same for
+     * every value are skipped. This algorithm has a guaranteed O(n) performance and uses one scratch array the size of
+     * the specified array. Arrays of 16 or fewer values are sorted with a fixed sorting network instead.
+     * @param array the array to be sorted
+     */
+    public static void radix(long[] array) {
+        if (array == null || array.length < 2)
+            return;
+
+        RadixSort.sort(array, null);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the key of each element, according to the natural ordering of
+     * the keys. See {@link #sortByKey(List, IKeyExtractor, Comparator)}.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     */
+    public static <T, K extends Comparable<? super K>> void sortByKey(List<T> list, IKeyExtractor<? super T, ? extends K> keyExtractor) {
+        sortByKey(list, keyExtractor, new ComparableComparator<K>());
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the key of each element, according to the order induced by
+     * the specified key comparator.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The key of each element is extracted exactly once into an array alongside a copy of the list. The sorting
+     * algorithm is a merge sort of the keys that moves each element along with its key, after which the elements are
+     * written back to the list in one pass. This algorithm has a guaranteed O(n log(n)) performance with n key
+     * extractions, where comparing the elements with a comparator that computes the keys itself would compute them
+     * O(n log(n)) times. Keys that are ints, longs or doubles are better served by the radix sorts such as
+     * {@link #radixByInt(List, IIntKeyExtractor)}, which never compare at all.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     * @param keyComparator the comparator to determine the order of the keys
+     */
+    public static <T, K> void sortByKey(List<T> list, IKeyExtractor<? super T, ? extends K> keyExtractor,
+                                        Comparator<? super K> keyComparator) {
+        sortByKey(list, keyExtractor, keyComparator, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #sortByKey(List, IKeyExtractor, Comparator)}, reporting the comparisons of
+     * keys and the time spent extracting, sorting and writing back to the listener.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     * @param keyComparator the comparator to determine the order of the keys
+     * @param listener the listener to report to
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K> void sortByKey(List<T> list, IKeyExtractor<? super T, ? extends K> keyExtractor,
+                                        Comparator<? super K> keyComparator, ISortListener listener) {
+        if (list == null || list.size() < 2)
+            return;
+
+        listener.phaseStarted(SortPhase.COPY);
+        T[] items = ListArrays.toArray(list, 0, list.size());
+        K[] keys = (K[]) new Object[items.length];
+        for (int i = 0; i < items.length; i++)
+            keys[i] = keyExtractor.getKey(items[i]);
+        listener.phaseFinished(SortPhase.COPY);
+
+        listener.phaseStarted(SortPhase.SORT);
+        KeySort.sort(keys, items, CountingComparator.wrap(keyComparator, listener));
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, items);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the int key of each element.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a least significant digit radix sort over 8 bit digits. The key of each element is
+     * extracted exactly once and the elements are moved along with their keys, then written back to the list in one
+     * pass. Digits that are the same for every key are skipped. This algorithm has a guaranteed O(n) performance.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     */
+    public static <T> void radixByInt(List<T> list, IIntKeyExtractor<? super T> keyExtractor) {
+        if (list == null || list.size() < 2)
+            return;
+
+        RadixSort.sortByInt(list, keyExtractor);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the long key of each element.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a least significant digit radix sort over 8 bit digits. The key of each element is
+     * extracted exactly once and the elements are moved along with their keys, then written back to the list in one
+     * pass. Digits that are the same for every key are skipped. This algorithm has a guaranteed O(n) performance.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     */
+    public static <T> void radixByLong(List<T> list, ILongKeyExtractor<? super T> keyExtractor) {
+        if (list == null || list.size() < 2)
+            return;
+
+        RadixSort.sortByLong(list, keyExtractor);
+    }
+
+    /**
+     * Sorts the specified list into ascending order of the double key of each element. Keys are ordered the same way as
+     * {@link Double#compare(double, double)}: -0.0 sorts before 0.0 and NaN sorts after positive infinity.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a least significant digit radix sort over 8 bit digits of the IEEE 754 bits of each key.
+     * The key of each element is extracted exactly once and the elements are moved along with their keys, then written
+     * back to the list in one pass. Digits that are the same for every key are skipped. This algorithm has a guaranteed
+     * O(n) performance.
+     * @param list the list to be sorted
+     * @param keyExtractor provides the key of each element
+     */
+    public static <T> void radixByDouble(List<T> list, IDoubleKeyExtractor<? super T> keyExtractor) {
+        if (list == null || list.size() < 2)
+            return;
+
+        RadixSort.sortByDouble(list, keyExtractor);
     }
 
     /**
@@ -196,8 +1079,12 @@ public class SortUtility {
      *
      * The specified list must be modifiable, but need not be resizable.
      *
-     * The sorting algorithm is a quick sort. This algorithm has an average case of O(n log(n)) and a worst case of
-     * O(n^2) performance. The algorithm sorts in place thus using less memory overhead.
+     * The sorting algorithm is an introspective quick sort. Partitions recurse into the smaller side and loop on the
+     * larger one, a range that partitions badly more than 2 log(n) times is heap sorted instead, and small ranges are
+     * finished with an insertion sort. When the pivot samples contain duplicates the range is partitioned three ways so
+     * keys equal to the pivot are grouped in one pass and never partitioned again. This algorithm has a guaranteed
+     * O(n log(n)) performance and never recurses more than log(n) deep. The range is copied into an array once, sorted
+     * there with indexed loops and written back in a single pass, so any {@link List} implementation sorts equally fast.
      *
      * @param list the list of comparable objects to be sorted
      * @param startIndex This is the starting index of the list where to start quicksort
@@ -214,8 +1101,12 @@ public class SortUtility {
      *
      * The specified list must be modifiable, but need not be resizable.
      *
-     * The sorting algorithm is a quick sort. This algorithm has an average case of O(n log(n)) and a worst case of
-     * O(n^2) performance. The algorithm sorts in place thus using less memory overhead.
+     * The sorting algorithm is an introspective quick sort. Partitions recurse into the smaller side and loop on the
+     * larger one, a range that partitions badly more than 2 log(n) times is heap sorted instead, and small ranges are
+     * finished with an insertion sort. When the pivot samples contain duplicates the range is partitioned three ways so
+     * keys equal to the pivot are grouped in one pass and never partitioned again. This algorithm has a guaranteed
+     * O(n log(n)) performance and never recurses more than log(n) deep. The range is copied into an array once, sorted
+     * there with indexed loops and written back in a single pass, so any {@link List} implementation sorts equally fast.
      *
      * @param list the list of comparable objects to be sorted
      * @param comparator the comparator for the class the list specifies
@@ -223,7 +1114,21 @@ public class SortUtility {
      * @param endIndex This is the ending index of the list where to end quicksort
      */
     public static <T> void quickSort(List<T> list, Comparator<T> comparator, int startIndex, int endIndex) {
-        if (list == null || list.isEmpty() || startIndex == endIndex || (endIndex - startIndex == 1))
+        quickSort(list, comparator, startIndex, endIndex, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified range of the list like {@link #quickSort(List, Comparator, int, int)}, reporting the
+     * comparisons, the elements swapped or shifted, the depth of every partition and the time spent in each phase to
+     * the listener.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     * @param startIndex the index of the first element to be sorted
+     * @param endIndex the index of the last element to be sorted
+     * @param listener the listener to report to
+     */
+    public static <T> void quickSort(List<T> list, Comparator<T> comparator, int startIndex, int endIndex, ISortListener listener) {
+        if (list == null || list.isEmpty() || startIndex == endIndex)
             return;
         else if (endIndex >= list.size() || endIndex < 0)
             throw new ArrayIndexOutOfBoundsException(endIndex + " is less than zero or is greater than list size: " + list.size());
@@ -232,59 +1137,357 @@ public class SortUtility {
         else if (startIndex > endIndex)
             throw new IllegalArgumentException("startIndex cannot be greater than endIndex");
 
-        int middleIndex = startIndex + (endIndex - startIndex)/2;
-        int pivotIndex = middleIndex;
-
-        //select the median value as the pivot index.  This is for efficiency
-        T startValue = list.get(startIndex);
-        T middleValue = list.get(middleIndex);
-        T endValue = list.get(endIndex);
-        T pivotValue = middleValue;
-        if (comparator.compare(middleValue, startValue) < 0 && comparator.compare(startValue, endValue) > 0) {
-            pivotIndex = startIndex;
-            pivotValue = startValue;
-        }
-        else if (comparator.compare(middleValue, endValue) < 0 && comparator.compare(endValue, startValue) > 0) {
-            pivotIndex = endIndex;
-            pivotValue = endValue;
-        }
+        listener.phaseStarted(SortPhase.COPY);
+        T[] array = ListArrays.toArray(list, startIndex, endIndex + 1);
+        listener.phaseFinished(SortPhase.COPY);
+        listener.phaseStarted(SortPhase.SORT);
+        QuickSort.sort(array, CountingComparator.wrap(comparator, listener), 0, array.length - 1, listener);
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, startIndex, array);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
 
-        Collections.swap(list, pivotIndex, endIndex);
-        int swapIndex = startIndex;
-        for (int i = startIndex; i < endIndex; i++) {
-            if (comparator.compare(list.get(i), pivotValue) < 0) {
-                Collections.swap(list, i, swapIndex);
-                swapIndex++;
-            }
-        }
-        Collections.swap(list, swapIndex, endIndex);
+    /**
+     * Sorts the fixed width binary records between the position and the limit of the specified buffer into ascending
+     * order of their keys. Each record is recordWidth bytes long and holds its key keyOffset bytes from its start, read
+     * in the byte order of the buffer. The buffer may be a direct or memory mapped buffer, and its position and limit
+     * are left unchanged.
+     *
+     * This sort is not stable.
+     *
+     * The sorting algorithm is the introspective quick sort of {@link #quickSort(List, Comparator, int, int)} applied
+     * to the records in place. Keys are read straight from the buffer and records are swapped within it, so no record
+     * is copied onto the heap and no object is allocated per record. This algorithm has a guaranteed O(n log(n))
+     * performance.
+     * @param buffer the buffer holding the records to be sorted
+     * @param recordWidth the size of each record in bytes
+     * @param keyOffset the offset of the key from the start of each record in bytes
+     * @param keyType the type of the key
+     */
+    public static void quickSort(ByteBuffer buffer, int recordWidth, int keyOffset, RecordKeyType keyType) {
+        if (buffer == null || !buffer.hasRemaining())
+            return;
+        else if (keyType == null)
+            throw new IllegalArgumentException("The keyType parameter cannot be null.");
+        else if (recordWidth < 1 || buffer.remaining() % recordWidth != 0)
+            throw new IllegalArgumentException("The remaining " + buffer.remaining() + " bytes of the buffer are not a whole number of " + recordWidth + " byte records.");
+        else if (keyOffset < 0 || keyOffset + keyType.getSize() > recordWidth)
+            throw new IllegalArgumentException("A " + keyType + " key at offset " + keyOffset + " does not fit in a " + recordWidth + " byte record.");
+
+        RecordSort.sort(buffer, recordWidth, keyOffset, keyType);
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements, using every
+     * worker of the common {@link ForkJoinPool}. See {@link #parallelQuickSort(List, Comparator, ForkJoinPool, int)}.
+     * @param list the list of comparable objects to be sorted
+     */
+    public static <T extends Comparable<? super T>> void parallelQuickSort(List<T> list) {
+        parallelQuickSort(list, new ComparableComparator<T>());
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the comparator, using every worker of the common
+     * {@link ForkJoinPool}. See {@link #parallelQuickSort(List, Comparator, ForkJoinPool, int)}.
+     * @param list the list to be sorted
+     * @param comparator the comparator for the class the list specifies
+     */
+    public static <T> void parallelQuickSort(List<T> list, Comparator<T> comparator) {
+        parallelQuickSort(list, comparator, ForkJoinPool.commonPool(), QuickSort.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the comparator. The comparator must be safe to call
+     * from several threads at once.
+     *
+     * This sort is not stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is the introspective quick sort of {@link #quickSort(List, Comparator, int, int)}. Each
+     * range is partitioned by the task that owns it and both sides are forked as new tasks on the pool until a range
+     * has fewer than sequentialThreshold elements, which is then sorted sequentially by a single worker. This
+     * algorithm has a guaranteed O(n log(n)) performance.
+     * @param list the list to be sorted
+     * @param comparator the comparator for the class the list specifies
+     * @param pool the pool whose workers sort the list
+     * @param sequentialThreshold ranges smaller than this are not split any further
+     */
+    public static <T> void parallelQuickSort(List<T> list, Comparator<T> comparator, ForkJoinPool pool, int sequentialThreshold) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (pool == null)
+            throw new IllegalArgumentException("The pool parameter cannot be null.");
+        else if (sequentialThreshold < 1)
+            throw new IllegalArgumentException("sequentialThreshold must be greater than zero.");
+
+        T[] array = ListArrays.toArray(list, 0, list.size());
+        QuickSort.parallelSort(array, comparator, pool, sequentialThreshold);
+        ListArrays.writeBack(list, 0, array);
+    }
+
+    /**
+     * Rearranges the specified list so the element at index k is the one that would be there if the list were sorted
+     * into ascending order, according to the natural ordering of its elements. See
+     * {@link #select(List, Comparator, int)}.
+     * @param list the list to be partitioned
+     * @param k the index of the element to select
+     * @return the element at index k of the sorted list
+     */
+    public static <T extends Comparable<? super T>> T select(List<T> list, int k) {
+        return select(list, new ComparableComparator<T>(), k);
+    }
+
+    /**
+     * Rearranges the specified list so the element at index k is the one that would be there if the list were sorted
+     * into ascending order, according to the order induced by the specified comparator. No element before index k is
+     * greater than it and no element after index k is smaller, but neither side is sorted. Selecting index size/2
+     * finds the median.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The selection algorithm is a quick select using the median of three partition of
+     * {@link #quickSort(List, Comparator, int, int)}, only following the partition that holds index k. This algorithm
+     * offers O(n) expected performance and falls back to a heap sort to keep the worst case at O(n log(n)). The list
+     * is copied into an array and written back once.
+     * @param list the list to be partitioned
+     * @param comparator the comparator to determine the order of the list
+     * @param k the index of the element to select
+     * @return the element at index k of the sorted list
+     */
+    public static <T> T select(List<T> list, Comparator<T> comparator, int k) {
+        return select(list, comparator, k, ISortListener.NONE);
+    }
+
+    /**
+     * Rearranges the specified list like {@link #select(List, Comparator, int)}, reporting the comparisons, the
+     * elements swapped or shifted, the depth of every partition and the time spent in each phase to the listener.
+     * @param list the list to be partitioned
+     * @param comparator the comparator to determine the order of the list
+     * @param k the index of the element to select
+     * @param listener the listener to report to
+     * @return the element at index k of the sorted list
+     */
+    public static <T> T select(List<T> list, Comparator<T> comparator, int k, ISortListener listener) {
+        if (list == null)
+            throw new IllegalArgumentException("The list parameter cannot be null.");
+        else if (k < 0 || k >= list.size())
+            throw new IllegalArgumentException("k must be between 0 and " + (list.size() - 1) + " but was " + k + ".");
+
+        listener.phaseStarted(SortPhase.COPY);
+        T[] array = ListArrays.toArray(list, 0, list.size());
+        listener.phaseFinished(SortPhase.COPY);
+        listener.phaseStarted(SortPhase.SORT);
+        QuickSort.select(array, CountingComparator.wrap(comparator, listener), k, listener);
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, array);
+        listener.phaseFinished(SortPhase.REWRITE);
+        return array[k];
+    }
+
+    /**
+     * Sorts the k smallest elements of the specified list into ascending order at its front, according to the natural
+     * ordering of its elements. See {@link #partialSort(List, Comparator, int)}.
+     * @param list the list to be partially sorted
+     * @param k the number of elements to sort
+     */
+    public static <T extends Comparable<? super T>> void partialSort(List<T> list, int k) {
+        partialSort(list, new ComparableComparator<T>(), k);
+    }
+
+    /**
+     * Sorts the k smallest elements of the specified list into ascending order at its front, according to the order
+     * induced by the specified comparator. The remaining elements follow in no particular order.
+     *
+     * This sort is not stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a {@link #select(List, Comparator, int)} of index k - 1 followed by the introspective
+     * quick sort of {@link #quickSort(List, Comparator, int, int)} on the first k elements. This algorithm offers
+     * O(n + k log(k)) expected performance.
+     * @param list the list to be partially sorted
+     * @param comparator the comparator to determine the order of the list
+     * @param k the number of elements to sort
+     */
+    public static <T> void partialSort(List<T> list, Comparator<T> comparator, int k) {
+        partialSort(list, comparator, k, ISortListener.NONE);
+    }
+
+    /**
+     * Partially sorts the specified list like {@link #partialSort(List, Comparator, int)}, reporting the comparisons,
+     * the elements swapped or shifted, the depth of every partition and the time spent in each phase to the listener.
+     * @param list the list to be partially sorted
+     * @param comparator the comparator to determine the order of the list
+     * @param k the number of elements to sort
+     * @param listener the listener to report to
+     */
+    public static <T> void partialSort(List<T> list, Comparator<T> comparator, int k, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+        else if (k < 0 || k > list.size())
+            throw new IllegalArgumentException("k must be between 0 and " + list.size() + " but was " + k + ".");
 
-        if (swapIndex - 1 > startIndex)
-            quickSort(list, comparator, startIndex, swapIndex - 1);
-        if (swapIndex + 1 < endIndex)
-            quickSort(list, comparator, swapIndex + 1, endIndex);
+        listener.phaseStarted(SortPhase.COPY);
+        T[] array = ListArrays.toArray(list, 0, list.size());
+        listener.phaseFinished(SortPhase.COPY);
+        listener.phaseStarted(SortPhase.SORT);
+        QuickSort.partialSort(array, CountingComparator.wrap(comparator, listener), k, listener);
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, array);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * Returns the k smallest elements of the specified iterator in ascending order, according to the natural ordering
+     * of its elements. See {@link #topK(Iterator, Comparator, int)}.
+     * @param iterator the elements to choose from
+     * @param k the number of elements to return
+     * @return a new list of at most k elements
+     */
+    public static <T extends Comparable<? super T>> List<T> topK(Iterator<? extends T> iterator, int k) {
+        return topK(iterator, new ComparableComparator<T>(), k);
+    }
+
+    /**
+     * Returns the k smallest elements of the specified iterator in ascending order, according to the order induced by
+     * the specified comparator. Fewer than k elements are returned when the iterator runs out first. Pass
+     * {@link Collections#reverseOrder(Comparator)} to get the k largest elements instead.
+     *
+     * The iterator is read exactly once and only the k elements kept so far are held in memory, so it suits streamed
+     * input that would not fit in a list.
+     *
+     * The selection algorithm keeps a bounded max heap of k elements. Each element is compared against the largest
+     * kept element and replaces it when smaller. This algorithm offers O(n log(k)) performance, and O(n) when most
+     * elements are rejected by the first comparison.
+     * @param iterator the elements to choose from
+     * @param comparator the comparator to determine the order of the elements
+     * @param k the number of elements to return
+     * @return a new list of at most k elements
+     */
+    public static <T> List<T> topK(Iterator<? extends T> iterator, Comparator<T> comparator, int k) {
+        if (iterator == null)
+            throw new IllegalArgumentException("The iterator parameter cannot be null.");
+        else if (k < 0)
+            throw new IllegalArgumentException("k cannot be negative but was " + k + ".");
+
+        return TopK.smallest(iterator, comparator, k);
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the natural ordering of its elements. See
+     * {@link #insertionSort(List, Comparator)}.
+     * @param list the list of comparable objects to be sorted
+     */
+    public static <T extends Comparable<? super T>> void insertionSort(List<T> list) {
+        insertionSort(list, new ComparableComparator<T>());
+    }
+
+    /**
+     * Sorts the specified list into ascending order, according to the order induced by the specified comparator.
+     *
+     * This sort is stable.
+     *
+     * The specified list must be modifiable, but need not be resizable.
+     *
+     * The sorting algorithm is a binary insertion sort. Each element is compared with its predecessor and, when out
+     * of place, its insertion point is found by binary search over the sorted prefix and the larger elements are
+     * shifted with a single array copy. This algorithm has O(n log(n)) comparisons but O(n^2) moves, so it is meant
+     * for small lists where it has the lowest overhead of any sort here, and for nearly sorted lists where it needs
+     * only n - 1 comparisons. The other sorts use it for their small ranges.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     */
+    public static <T> void insertionSort(List<T> list, Comparator<T> comparator) {
+        insertionSort(list, comparator, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #insertionSort(List, Comparator)}, reporting the comparisons, the elements
+     * shifted and the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     * @param listener the listener to report to
+     */
+    public static <T> void insertionSort(List<T> list, Comparator<T> comparator, ISortListener listener) {
+        if (list == null || list.isEmpty())
+            return;
+
+        listener.phaseStarted(SortPhase.COPY);
+        T[] array = ListArrays.toArray(list, 0, list.size());
+        listener.phaseFinished(SortPhase.COPY);
+        listener.phaseStarted(SortPhase.SORT);
+        listener.moved(SmallSort.insertionSort(array, CountingComparator.wrap(comparator, listener), 0, array.length - 1));
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, array);
+        listener.phaseFinished(SortPhase.REWRITE);
     }
 
     public static <T extends Comparable<? super T>> void bubbleSort(List<T> list) {
         bubbleSort(list, new ComparableComparator<T>());
     }
 
+    /**
+     * Sorts the specified list into ascending order, according to the order induced by the specified comparator.
+     *
+     * This sort is stable.
+     *
+     * The sorting algorithm is a bubble sort with O(n^2) performance. {@link #insertionSort(List, Comparator)} is
+     * faster on every input, including the small lists this was used for.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     */
     public static <T> void bubbleSort(List<T> list, Comparator<T> comparator) {
+        bubbleSort(list, comparator, ISortListener.NONE);
+    }
+
+    /**
+     * Sorts the specified list like {@link #bubbleSort(List, Comparator)}, reporting the comparisons, the swaps and
+     * the time spent in each phase to the listener.
+     * @param list the list to be sorted
+     * @param comparator the comparator to determine the order of the list
+     * @param listener the listener to report to
+     */
+    public static <T> void bubbleSort(List<T> list, Comparator<T> comparator, ISortListener listener) {
         if (list == null || list.isEmpty()) {
             return;
         }
 
+        listener.phaseStarted(SortPhase.COPY);
+        T[] array = ListArrays.toArray(list, 0, list.size());
+        listener.phaseFinished(SortPhase.COPY);
+        listener.phaseStarted(SortPhase.SORT);
+        listener.moved(bubbleSort(array, CountingComparator.wrap(comparator, listener)));
+        listener.phaseFinished(SortPhase.SORT);
+        listener.phaseStarted(SortPhase.REWRITE);
+        ListArrays.writeBack(list, 0, array);
+        listener.phaseFinished(SortPhase.REWRITE);
+    }
+
+    /**
+     * @return the amount of swaps
+     */
+    private static <T> long bubbleSort(T[] array, Comparator<T> comparator) {
+        long swaps = 0;
         boolean changes = true;
         while (changes) {
             changes = false;
 
-            for (int i = 1; i < list.size(); i++) {
-                if (comparator.compare(list.get(i - 1), list.get(i)) > 0) {
-                    Collections.swap(list, i -1, i);
+            for (int i = 1; i < array.length; i++) {
+                if (comparator.compare(array[i - 1], array[i]) > 0) {
+                    T value = array[i - 1];
+                    array[i - 1] = array[i];
+                    array[i] = value;
                     changes = true;
+                    swaps++;
                 }
             }
         }
+        return swaps;
     }
 
     private static class ComparableComparator<T extends Comparable> implements Comparator<T> {
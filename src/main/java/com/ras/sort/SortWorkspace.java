@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.Arrays;
+
+/**
+ * Scratch space that count and bucket sorts reuse across calls instead of allocating it every time. It holds the
+ * table that counts the unique values and the arrays for the elements, their keys, their dense key indexes and the
+ * output offsets, each grown to the largest sort it has served. Once it has grown to fit, sorting with it allocates
+ * nothing. Arrays and tables larger than {@link #MAX_RETAINED_LENGTH} are dropped once the sort that needed them
+ * finishes, so one large sort does not pin n sized arrays to a pool thread for the rest of its life.
+ *
+ * A workspace must only be used by one sort at a time. {@link #forCurrentThread()} gives every thread its own.
+ */
+public final class SortWorkspace {
+    /**
+     * The most elements a workspace keeps room for between sorts. Larger sorts still use the workspace, but allocate
+     * their scratch space again every time.
+     */
+    public static final int MAX_RETAINED_LENGTH = 1 << 16;
+
+    private static final ThreadLocal<SortWorkspace> CURRENT = ThreadLocal.withInitial(SortWorkspace::new);
+
+    private static final Object[] NO_OBJECTS = new Object[0];
+    private static final int[] NO_INTS = new int[0];
+
+    private CountTable<Object> m_counts;
+    private Object[] m_items = NO_OBJECTS;
+    private Object[] m_sorted = NO_OBJECTS;
+    private Object[] m_keys = NO_OBJECTS;
+    private int[] m_indexes = NO_INTS;
+    private int[] m_offsets = NO_INTS;
+
+    /**
+     * @return the workspace of the calling thread
+     */
+    public static SortWorkspace forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the empty count table
+     */
+    @SuppressWarnings("unchecked")
+    <T> CountTable<T> counts() {
+        if (m_counts == null)
+            m_counts = new CountTable<Object>(0);
+        return (CountTable<T>) (CountTable<?>) m_counts;
+    }
+
+    /**
+     * @return an array of at least length elements for a copy of the list
+     */
+    Object[] items(int length) {
+        if (m_items.length < length)
+            m_items = new Object[grow(m_items.length, length)];
+        return m_items;
+    }
+
+    /**
+     * @return an array of at least length elements for the sorted output
+     */
+    Object[] sorted(int length) {
+        if (m_sorted.length < length)
+            m_sorted = new Object[grow(m_sorted.length, length)];
+        return m_sorted;
+    }
+
+    /**
+     * @return an array of at least length elements for the unique keys
+     */
+    Object[] keys(int length) {
+        if (m_keys.length < length)
+            m_keys = new Object[grow(m_keys.length, length)];
+        return m_keys;
+    }
+
+    /**
+     * @return an array of at least length elements for the dense key index of each element
+     */
+    int[] indexes(int length) {
+        if (m_indexes.length < length)
+            m_indexes = new int[grow(m_indexes.length, length)];
+        return m_indexes;
+    }
+
+    /**
+     * @return an array of at least length elements for the output offset of each key
+     */
+    int[] offsets(int length) {
+        if (m_offsets.length < length)
+            m_offsets = new int[grow(m_offsets.length, length)];
+        return m_offsets;
+    }
+
+    /**
+     * Drops the references a sort of length elements left behind, so a workspace kept by a thread does not keep the
+     * sorted elements reachable, and drops any scratch space that grew past {@link #MAX_RETAINED_LENGTH}.
+     */
+    void release(int length) {
+        //The table holds at most length keys, so it only grew past the limit if the sort did
+        if (length > MAX_RETAINED_LENGTH)
+            m_counts = null;
+        else if (m_counts != null)
+            m_counts.clear();
+        m_items = release(m_items, length);
+        m_sorted = release(m_sorted, length);
+        m_keys = release(m_keys, length);
+        if (m_indexes.length > MAX_RETAINED_LENGTH)
+            m_indexes = NO_INTS;
+        if (m_offsets.length > MAX_RETAINED_LENGTH)
+            m_offsets = NO_INTS;
+    }
+
+    private static Object[] release(Object[] array, int length) {
+        if (array.length > MAX_RETAINED_LENGTH)
+            return NO_OBJECTS;
+
+        Arrays.fill(array, 0, Math.min(length, array.length), null);
+        return array;
+    }
+
+    private static int grow(int capacity, int length) {
+        //The first request is sized exactly so a workspace used once costs no more than allocating directly
+        return capacity == 0 ? length : Math.max(length, capacity + (capacity >> 1));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the k smallest elements seen so far in a bounded max heap, so the input is read once and never held in
+ * memory. The heap grows as elements are kept and never past k, so a large k over a short input only allocates what
+ * the input needs. Each element costs one comparison against the largest kept element and, when it is smaller, a
+ * log(k) sift down.
+ */
+final class TopK {
+    //The heap starts this small and doubles up to k, so a large k over a short input never allocates k slots
+    private static final int INITIAL_CAPACITY = 16;
+
+    private TopK() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> smallest(Iterator<? extends T> iterator, Comparator<? super T> comparator, int k) {
+        Object[] heap = new Object[Math.min(k, INITIAL_CAPACITY)];
+        int size = 0;
+        while (iterator.hasNext()) {
+            T value = iterator.next();
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, 2L * size));
+                heap[size] = value;
+                siftUp(heap, comparator, size++);
+            }
+            else if (k > 0 && comparator.compare(value, (T) heap[0]) < 0) {
+                heap[0] = value;
+                siftDown(heap, comparator, k);
+            }
+        }
+
+        T[] smallest = (T[]) Arrays.copyOf(heap, size);
+        QuickSort.sort(smallest, comparator, 0, size - 1);
+        return new ArrayList<T>(Arrays.asList(smallest));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void siftUp(Object[] heap, Comparator<? super T> comparator, int index) {
+        Object value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (comparator.compare((T) heap[parent], (T) value) >= 0)
+                break;
+
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void siftDown(Object[] heap, Comparator<? super T> comparator, int size) {
+        Object value = heap[0];
+        int root = 0;
+        int child;
+        while ((child = 2 * root + 1) < size) {
+            if (child + 1 < size && comparator.compare((T) heap[child], (T) heap[child + 1]) < 0)
+                child++;
+            if (comparator.compare((T) value, (T) heap[child]) >= 0)
+                break;
+
+            heap[root] = heap[child];
+            root = child;
+        }
+        heap[root] = value;
+    }
+}
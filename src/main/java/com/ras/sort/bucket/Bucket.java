@@ -17,15 +17,41 @@
 package com.ras.sort.bucket;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Created by RAS on 4/24/2014.
  */
 public final class Bucket<T> {
-    private T[] m_items;
+    private final T[] m_items;
+    //Buckets are hashed on every probe of a bucket sort so the hash is computed once
+    private final int m_hash;
 
+    /**
+     * The items must not be modified after the bucket is created.
+     */
     public Bucket(T... items) {
         m_items = items;
+        m_hash = Arrays.hashCode(items);
+    }
+
+    /**
+     * @return a comparator that orders buckets by their first item, then their second item and so on. A bucket that
+     * is a prefix of another bucket is ordered first.
+     */
+    public static <T extends Comparable<? super T>> Comparator<Bucket<T>> lexicographicComparator() {
+        return new Comparator<Bucket<T>>() {
+            @Override
+            public int compare(Bucket<T> o1, Bucket<T> o2) {
+                int count = Math.min(o1.m_items.length, o2.m_items.length);
+                for (int i = 0; i < count; i++) {
+                    int compare = o1.m_items[i].compareTo(o2.m_items[i]);
+                    if (compare != 0)
+                        return compare;
+                }
+                return o1.m_items.length - o2.m_items.length;
+            }
+        };
     }
 
     public int getBucketItemCount() {
@@ -43,6 +69,7 @@ public final class Bucket<T> {
 
         Bucket that = (Bucket) o;
 
+        if (m_hash != that.m_hash) return false;
         if (!Arrays.equals(m_items, that.m_items)) return false;
 
         return true;
@@ -50,6 +77,6 @@ public final class Bucket<T> {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(m_items);
+        return m_hash;
     }
 }
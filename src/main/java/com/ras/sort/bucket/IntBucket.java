@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.bucket;
+
+import java.util.Arrays;
+
+/**
+ * A bucket made of int items. It is the primitive counterpart of {@link Bucket} so composite numeric keys are not
+ * boxed, and it is ordered lexicographically: by its first item, then its second item and so on, with a bucket that
+ * is a prefix of another bucket ordered first.
+ */
+public final class IntBucket implements Comparable<IntBucket> {
+    private final int[] m_items;
+    private final int m_hash;
+
+    /**
+     * The items must not be modified after the bucket is created.
+     */
+    public IntBucket(int... items) {
+        m_items = items;
+        m_hash = Arrays.hashCode(items);
+    }
+
+    public int getBucketItemCount() {
+        return m_items.length;
+    }
+
+    public int getBucketItem(int index) {
+        return m_items[index];
+    }
+
+    @Override
+    public int compareTo(IntBucket o) {
+        int count = Math.min(m_items.length, o.m_items.length);
+        for (int i = 0; i < count; i++) {
+            int compare = Integer.compare(m_items[i], o.m_items[i]);
+            if (compare != 0)
+                return compare;
+        }
+        return m_items.length - o.m_items.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IntBucket that = (IntBucket) o;
+
+        if (m_hash != that.m_hash) return false;
+        if (!Arrays.equals(m_items, that.m_items)) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return m_hash;
+    }
+}
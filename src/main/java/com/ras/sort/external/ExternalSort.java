@@ -0,0 +1,214 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.external;
+
+import com.ras.sort.SortUtility;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sorts data sets larger than the heap. The input is read into runs of at most {@link #getRunSize()} items, each run
+ * is sorted in memory with {@link SortUtility#merge(List, Comparator)} and spilled to a temporary file. The runs are
+ * then merged {@link #getMergeFanIn()} at a time with a loser tree until few enough are left to merge while the result
+ * is read. If the whole input fits in a single run it is never written to disk.
+ *
+ * The memory used is bounded by one run of items while the input is read, and by one buffer of
+ * {@link #getBufferSize()} bytes per run while merging. The sort is stable.
+ *
+ * An ExternalSort holds no state between calls to {@link #sort(Iterator)} and may be reused.
+ */
+public class ExternalSort<T> {
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+    public static final int DEFAULT_MERGE_FAN_IN = 64;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<? super T> m_comparator;
+    private final ISerializer<T> m_serializer;
+    private int m_runSize = DEFAULT_RUN_SIZE;
+    private int m_mergeFanIn = DEFAULT_MERGE_FAN_IN;
+    private int m_bufferSize = DEFAULT_BUFFER_SIZE;
+    private File m_tempDirectory;
+
+    public ExternalSort(Comparator<? super T> comparator, ISerializer<T> serializer) {
+        if (comparator == null)
+            throw new IllegalArgumentException("The comparator parameter cannot be null.");
+        else if (serializer == null)
+            throw new IllegalArgumentException("The serializer parameter cannot be null.");
+
+        m_comparator = comparator;
+        m_serializer = serializer;
+    }
+
+    public int getRunSize() {
+        return m_runSize;
+    }
+
+    /**
+     * @param runSize the most items held in memory and sorted at once, which is the main bound on memory use
+     */
+    public void setRunSize(int runSize) {
+        if (runSize < 1)
+            throw new IllegalArgumentException("runSize must be greater than zero.");
+        m_runSize = runSize;
+    }
+
+    public int getMergeFanIn() {
+        return m_mergeFanIn;
+    }
+
+    /**
+     * @param mergeFanIn the most runs merged at once, each of which holds an open file and a buffer
+     */
+    public void setMergeFanIn(int mergeFanIn) {
+        if (mergeFanIn < 2)
+            throw new IllegalArgumentException("mergeFanIn must be at least two.");
+        m_mergeFanIn = mergeFanIn;
+    }
+
+    public int getBufferSize() {
+        return m_bufferSize;
+    }
+
+    /**
+     * @param bufferSize the size in bytes of the buffer used to read or write each run
+     */
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("bufferSize must be greater than zero.");
+        m_bufferSize = bufferSize;
+    }
+
+    public File getTempDirectory() {
+        return m_tempDirectory;
+    }
+
+    /**
+     * @param tempDirectory the directory the runs are spilled to or null to use the default temporary directory
+     */
+    public void setTempDirectory(File tempDirectory) {
+        m_tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts every item of the input. The result must be closed if it is not read to the end so its runs are deleted.
+     * @param input the items to be sorted
+     * @return the items in ascending order according to the comparator
+     */
+    public ExternalSortResult<T> sort(Iterator<? extends T> input) throws IOException {
+        List<RunFile<T>> runs = new ArrayList<RunFile<T>>();
+        boolean sorted = false;
+        try {
+            List<T> buffer = new ArrayList<T>();
+            while (input.hasNext()) {
+                buffer.add(input.next());
+                if (buffer.size() == m_runSize) {
+                    runs.add(spill(buffer));
+                    buffer.clear();
+                }
+            }
+
+            ExternalSortResult<T> result;
+            if (runs.isEmpty()) {
+                SortUtility.merge(buffer, m_comparator);
+                result = new ExternalSortResult<T>(buffer.iterator());
+            }
+            else {
+                if (!buffer.isEmpty())
+                    runs.add(spill(buffer));
+                buffer = null;
+
+                while (runs.size() > m_mergeFanIn)
+                    runs = mergePass(runs);
+
+                result = new ExternalSortResult<T>(new RunMerger<T>(runs, m_comparator));
+            }
+            sorted = true;
+            return result;
+        }
+        finally {
+            //Any failure, including one thrown by the comparator or serializer, leaves no run behind
+            if (!sorted) {
+                for (RunFile<T> run: runs)
+                    run.delete();
+            }
+        }
+    }
+
+    private RunFile<T> spill(List<T> buffer) throws IOException {
+        SortUtility.merge(buffer, m_comparator);
+
+        RunFile<T> run = new RunFile<T>(m_tempDirectory, m_serializer, m_bufferSize);
+        boolean spilled = false;
+        try {
+            RunFile<T>.Writer writer = run.openWriter();
+            try {
+                for (T item: buffer)
+                    writer.write(item);
+            }
+            finally {
+                writer.close();
+            }
+            spilled = true;
+            return run;
+        }
+        finally {
+            if (!spilled)
+                run.delete();
+        }
+    }
+
+    /**
+     * Merges consecutive groups of runs into single runs. Keeping the groups consecutive keeps the sort stable.
+     */
+    private List<RunFile<T>> mergePass(List<RunFile<T>> runs) throws IOException {
+        List<RunFile<T>> merged = new ArrayList<RunFile<T>>();
+        boolean mergedAll = false;
+        try {
+            for (int from = 0; from < runs.size(); from += m_mergeFanIn) {
+                List<RunFile<T>> group = runs.subList(from, Math.min(runs.size(), from + m_mergeFanIn));
+                RunFile<T> run = new RunFile<T>(m_tempDirectory, m_serializer, m_bufferSize);
+                merged.add(run);
+
+                RunMerger<T> merger = new RunMerger<T>(group, m_comparator);
+                RunFile<T>.Writer writer = null;
+                try {
+                    writer = run.openWriter();
+                    while (merger.hasNext())
+                        writer.write(merger.next());
+                }
+                finally {
+                    if (writer != null)
+                        writer.close();
+                    merger.close();
+                }
+            }
+            mergedAll = true;
+            return merged;
+        }
+        finally {
+            if (!mergedAll) {
+                for (RunFile<T> run: merged)
+                    run.delete();
+            }
+        }
+    }
+}
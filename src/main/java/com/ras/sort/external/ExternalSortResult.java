@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The sorted items of an {@link ExternalSort}. Items are merged from the spilled runs as they are read, and the runs
+ * are deleted once the last item has been read, reading fails or the result is closed. An {@link IOException} while
+ * reading a run is thrown as an {@link UncheckedIOException}.
+ */
+public final class ExternalSortResult<T> implements Iterator<T>, Closeable {
+    private final Iterator<T> m_memoryItems;
+    private final RunMerger<T> m_merger;
+    private boolean m_closed;
+
+    ExternalSortResult(Iterator<T> memoryItems) {
+        m_memoryItems = memoryItems;
+        m_merger = null;
+    }
+
+    ExternalSortResult(RunMerger<T> merger) {
+        m_memoryItems = null;
+        m_merger = merger;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (m_closed)
+            return false;
+        else if (m_memoryItems != null)
+            return m_memoryItems.hasNext();
+        else if (m_merger.hasNext())
+            return true;
+
+        closeQuietly();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        else if (m_memoryItems != null)
+            return m_memoryItems.next();
+
+        try {
+            return m_merger.next();
+        }
+        catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+        catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed)
+            return;
+
+        m_closed = true;
+        if (m_merger != null)
+            m_merger.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        }
+        catch (IOException e) {
+            //The runs are deleted even if closing one of them failed
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.external;
+
+import java.util.Comparator;
+
+/**
+ * A tournament tree that picks the smallest head of k sorted sources in log(k) comparisons. Every internal node holds
+ * the source that lost the match played there, so replacing the winner only replays the matches on its path to the
+ * root. Ties are won by the source with the lower index, which keeps a merge of consecutive runs stable.
+ */
+final class LoserTree<T> {
+    private final Comparator<? super T> m_comparator;
+    private final Object[] m_heads;
+    private final boolean[] m_exhausted;
+    //m_tree[0] is the overall winner, m_tree[1 .. k - 1] are the losers of each match
+    private final int[] m_tree;
+
+    /**
+     * @param heads the first item of each source
+     * @param exhausted whether each source is already empty, in which case its head is ignored
+     */
+    LoserTree(Comparator<? super T> comparator, Object[] heads, boolean[] exhausted) {
+        m_comparator = comparator;
+        m_heads = heads;
+        m_exhausted = exhausted;
+        m_tree = new int[heads.length];
+        m_tree[0] = build(1);
+    }
+
+    /**
+     * @return the index of the source with the smallest head or -1 if every source is exhausted
+     */
+    int winner() {
+        int winner = m_tree[0];
+        return m_exhausted[winner] ? -1 : winner;
+    }
+
+    @SuppressWarnings("unchecked")
+    T winnerHead() {
+        return (T) m_heads[m_tree[0]];
+    }
+
+    /**
+     * Replaces the head of the current winner and replays its matches.
+     */
+    void replaceWinner(T head, boolean exhausted) {
+        int winner = m_tree[0];
+        m_heads[winner] = head;
+        m_exhausted[winner] = exhausted;
+
+        for (int node = (winner + m_heads.length) / 2; node > 0; node /= 2) {
+            if (beats(m_tree[node], winner)) {
+                int loser = winner;
+                winner = m_tree[node];
+                m_tree[node] = loser;
+            }
+        }
+        m_tree[0] = winner;
+    }
+
+    private int build(int node) {
+        //Nodes k .. 2k - 1 are the leaves, one per source
+        if (node >= m_heads.length)
+            return node - m_heads.length;
+
+        int left = build(2 * node);
+        int right = build(2 * node + 1);
+        if (beats(left, right)) {
+            m_tree[node] = right;
+            return left;
+        }
+        m_tree[node] = left;
+        return right;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean beats(int source, int other) {
+        if (m_exhausted[source])
+            return false;
+        else if (m_exhausted[other])
+            return true;
+
+        int compare = m_comparator.compare((T) m_heads[source], (T) m_heads[other]);
+        return compare < 0 || (compare == 0 && source < other);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.external;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A sorted run spilled to a temporary file. Items are written with the serializer of the sort and streamed through
+ * buffers of a fixed size on top of a {@link FileChannel}, so reading or writing a run never holds more than one
+ * buffer of it in memory.
+ */
+final class RunFile<T> {
+    private final File m_file;
+    private final ISerializer<T> m_serializer;
+    private final int m_bufferSize;
+    private long m_count;
+
+    RunFile(File directory, ISerializer<T> serializer, int bufferSize) throws IOException {
+        m_file = File.createTempFile("sort-run-", ".tmp", directory);
+        m_serializer = serializer;
+        m_bufferSize = bufferSize;
+    }
+
+    Writer openWriter() throws IOException {
+        FileChannel channel = FileChannel.open(m_file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new Writer(new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), m_bufferSize)));
+    }
+
+    Reader openReader() throws IOException {
+        FileChannel channel = FileChannel.open(m_file.toPath(), StandardOpenOption.READ);
+        return new Reader(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), m_bufferSize)), m_count);
+    }
+
+    void delete() {
+        m_file.delete();
+    }
+
+    final class Writer implements Closeable {
+        private final DataOutputStream m_output;
+
+        private Writer(DataOutputStream output) {
+            m_output = output;
+            m_count = 0;
+        }
+
+        void write(T item) throws IOException {
+            m_serializer.write(item, m_output);
+            m_count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            m_output.close();
+        }
+    }
+
+    final class Reader implements Closeable {
+        private final DataInputStream m_input;
+        private long m_remaining;
+
+        private Reader(DataInputStream input, long count) {
+            m_input = input;
+            m_remaining = count;
+        }
+
+        boolean hasNext() {
+            return m_remaining > 0;
+        }
+
+        T read() throws IOException {
+            m_remaining--;
+            return m_serializer.read(m_input);
+        }
+
+        @Override
+        public void close() throws IOException {
+            m_input.close();
+        }
+    }
+}
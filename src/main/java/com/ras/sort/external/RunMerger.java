@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges sorted runs with a {@link LoserTree}, reading each run sequentially through its own buffer.
+ */
+final class RunMerger<T> implements Closeable {
+    private final List<RunFile<T>> m_runs;
+    private final RunFile<T>.Reader[] m_readers;
+    private final LoserTree<T> m_tree;
+
+    RunMerger(List<RunFile<T>> runs, Comparator<? super T> comparator) throws IOException {
+        m_runs = runs;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        RunFile<T>.Reader[] readers = new RunFile.Reader[runs.size()];
+        m_readers = readers;
+        Object[] heads = new Object[runs.size()];
+        boolean[] exhausted = new boolean[runs.size()];
+        boolean opened = false;
+        try {
+            for (int i = 0; i < m_readers.length; i++) {
+                m_readers[i] = runs.get(i).openReader();
+                if (m_readers[i].hasNext())
+                    heads[i] = m_readers[i].read();
+                else
+                    exhausted[i] = true;
+            }
+            m_tree = new LoserTree<T>(comparator, heads, exhausted);
+            opened = true;
+        }
+        finally {
+            if (!opened)
+                closeQuietly();
+        }
+    }
+
+    boolean hasNext() {
+        return m_tree.winner() >= 0;
+    }
+
+    /**
+     * @return the smallest remaining item of every run, which must exist
+     */
+    T next() throws IOException {
+        int winner = m_tree.winner();
+        T item = m_tree.winnerHead();
+        if (m_readers[winner].hasNext())
+            m_tree.replaceWinner(m_readers[winner].read(), false);
+        else
+            m_tree.replaceWinner(null, true);
+        return item;
+    }
+
+    /**
+     * Closes every run and deletes their files.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < m_readers.length; i++) {
+            try {
+                if (m_readers[i] != null)
+                    m_readers[i].close();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+            m_runs.get(i).delete();
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Closes every run and deletes their files without hiding the failure that is already being thrown.
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        }
+        catch (IOException e) {
+            //The runs are deleted even if closing one of them failed
+        }
+    }
+}
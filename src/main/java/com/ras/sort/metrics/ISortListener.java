@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.metrics;
+
+/**
+ * Receives what a sort does as it runs. Every method is called from the sorting thread. The algorithms report their
+ * events through {@link #NONE} when no listener is given, so the calls inline to nothing.
+ */
+public interface ISortListener {
+    /**
+     * Ignores every event.
+     */
+    public static final ISortListener NONE = new ISortListener() {
+        @Override
+        public void phaseStarted(SortPhase phase) {
+        }
+
+        @Override
+        public void phaseFinished(SortPhase phase) {
+        }
+
+        @Override
+        public void compared() {
+        }
+
+        @Override
+        public void moved(long count) {
+        }
+
+        @Override
+        public void distinctKeys(int count) {
+        }
+
+        @Override
+        public void recursed(int depth) {
+        }
+    };
+
+    public void phaseStarted(SortPhase phase);
+
+    public void phaseFinished(SortPhase phase);
+
+    /**
+     * Called once for every invocation of the comparator.
+     */
+    public void compared();
+
+    /**
+     * Called after count elements were swapped, shifted or written into place.
+     */
+    public void moved(long count);
+
+    /**
+     * Called with the amount of unique keys found by a count or bucket sort.
+     */
+    public void distinctKeys(int count);
+
+    /**
+     * Called with the depth of each partition of a quick sort, starting from 0.
+     */
+    public void recursed(int depth);
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.metrics;
+
+/**
+ * An {@link ISortListener} that totals the events of the sorts it is given to, for logging why a sort was slow. A
+ * single instance can be given to several sorts in turn to accumulate their totals. It is not thread safe and must
+ * not be shared by sorts running at the same time.
+ */
+public class SortMetrics implements ISortListener {
+    private long m_comparisons;
+    private long m_moves;
+    private int m_distinctKeys;
+    private int m_maxRecursionDepth;
+    private final long[] m_phaseNanos = new long[SortPhase.values().length];
+    private final long[] m_phaseStarts = new long[SortPhase.values().length];
+
+    @Override
+    public void phaseStarted(SortPhase phase) {
+        m_phaseStarts[phase.ordinal()] = System.nanoTime();
+    }
+
+    @Override
+    public void phaseFinished(SortPhase phase) {
+        m_phaseNanos[phase.ordinal()] += System.nanoTime() - m_phaseStarts[phase.ordinal()];
+    }
+
+    @Override
+    public void compared() {
+        m_comparisons++;
+    }
+
+    @Override
+    public void moved(long count) {
+        m_moves += count;
+    }
+
+    @Override
+    public void distinctKeys(int count) {
+        m_distinctKeys = count;
+    }
+
+    @Override
+    public void recursed(int depth) {
+        if (depth > m_maxRecursionDepth)
+            m_maxRecursionDepth = depth;
+    }
+
+    /**
+     * @return the amount of comparator invocations
+     */
+    public long getComparisons() {
+        return m_comparisons;
+    }
+
+    /**
+     * @return the amount of elements swapped, shifted or written into place
+     */
+    public long getMoves() {
+        return m_moves;
+    }
+
+    /**
+     * @return the amount of unique keys found by the last count or bucket sort
+     */
+    public int getDistinctKeys() {
+        return m_distinctKeys;
+    }
+
+    /**
+     * @return the deepest partition reached by a quick sort
+     */
+    public int getMaxRecursionDepth() {
+        return m_maxRecursionDepth;
+    }
+
+    /**
+     * @return the total nanoseconds spent in the phase
+     */
+    public long getPhaseNanos(SortPhase phase) {
+        return m_phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Sets every total back to zero.
+     */
+    public void reset() {
+        m_comparisons = 0;
+        m_moves = 0;
+        m_distinctKeys = 0;
+        m_maxRecursionDepth = 0;
+        for (int i = 0; i < m_phaseNanos.length; i++)
+            m_phaseNanos[i] = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("comparisons=").append(m_comparisons)
+                .append(", moves=").append(m_moves)
+                .append(", distinctKeys=").append(m_distinctKeys)
+                .append(", maxRecursionDepth=").append(m_maxRecursionDepth);
+        for (SortPhase phase: SortPhase.values()) {
+            if (m_phaseNanos[phase.ordinal()] > 0)
+                builder.append(", ").append(phase).append("Nanos=").append(m_phaseNanos[phase.ordinal()]);
+        }
+        return builder.toString();
+    }
+}
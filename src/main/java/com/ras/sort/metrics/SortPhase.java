@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.metrics;
+
+/**
+ * The phases of a sort reported to an {@link ISortListener}. Each algorithm goes through only the phases it has.
+ */
+public enum SortPhase {
+    /**
+     * Copying the list into an array.
+     */
+    COPY,
+    /**
+     * Counting or grouping the elements by their key, for count and bucket sorts.
+     */
+    COUNT,
+    /**
+     * Sorting the unique keys, for count and bucket sorts.
+     */
+    KEY_SORT,
+    /**
+     * Sorting the elements by comparison, for quick, merge, insertion and bubble sorts.
+     */
+    SORT,
+    /**
+     * Writing the sorted elements back into the list.
+     */
+    REWRITE
+}
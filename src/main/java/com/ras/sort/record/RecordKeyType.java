@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ras.sort.record;
+
+/**
+ * The type of the key of a fixed width binary record, read in the byte order of the buffer holding the records.
+ */
+public enum RecordKeyType {
+    INT(4),
+    LONG(8),
+    /**
+     * Ordered the same way as {@link Double#compare(double, double)}.
+     */
+    DOUBLE(8);
+
+    private final int m_size;
+
+    private RecordKeyType(int size) {
+        m_size = size;
+    }
+
+    /**
+     * @return the size of the key in bytes
+     */
+    public int getSize() {
+        return m_size;
+    }
+}
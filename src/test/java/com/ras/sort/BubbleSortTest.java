@@ -109,4 +109,18 @@ public class BubbleSortTest {
             fail("An error should not be thrown even if the list is empty");
         }
     }
+
+    @Test
+    public void testLinkedListSort() {
+        Random random = new Random();
+        List<Integer> bubbleSorted = new LinkedList<Integer>();
+        for (int i = 0; i < 2000; i++)
+            bubbleSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(bubbleSorted);
+
+        SortUtility.bubbleSort(bubbleSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, bubbleSorted);
+    }
 }
@@ -15,20 +15,34 @@
  */
 package com.ras.sort;
 
-import com.ras.sort.bucket.Bucket;
-import com.ras.sort.bucket.IBucketProvider;
+import com.ras.sort.bucket.*;
+import com.ras.sort.metrics.SortMetrics;
 import org.junit.Test;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Created by RAS on 4/28/2014.
  */
 public class BucketSortTest {
+    private static final Comparator<Bucket<Integer>> BUCKET_COMPARATOR = new Comparator<Bucket<Integer>>() {
+        @Override
+        public int compare(Bucket<Integer> o1, Bucket<Integer> o2) {
+            for (int i = 0; i < o1.getBucketItemCount(); i++) {
+                int compare = o1.getBucketItem(i) - o2.getBucketItem(i);
+                if (compare != 0)
+                    return compare;
+            }
+            return 0;
+        }
+    };
+
     @Test
     public void testBasicListSort() {
         List<Person> list = new ArrayList<Person>();
@@ -58,6 +72,277 @@ public class BucketSortTest {
         }
     }
 
+    @Test
+    public void testRandomListSortIsStable() {
+        Random random = new Random();
+        List<Person> bucketSorted = new LinkedList<Person>();
+        for (int i = 0; i < 5000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(10), random.nextInt(10)));
+        List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+        SortUtility.bucket(bucketSorted, BUCKET_COMPARATOR);
+        //Collections.sort is stable so people in the same bucket stay in id order
+        Collections.sort(standardJavaSorted, new Comparator<Person>() {
+            @Override
+            public int compare(Person o1, Person o2) {
+                return BUCKET_COMPARATOR.compare(o1.getBucket(), o2.getBucket());
+            }
+        });
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testSmallListSortIsStable() {
+        //Lists this small skip the count table and are insertion sorted
+        Random random = new Random();
+        for (int size = 1; size < 16; size++) {
+            List<Person> bucketSorted = new ArrayList<Person>();
+            for (int i = 0; i < size; i++)
+                bucketSorted.add(new Person(i, random.nextInt(3), random.nextInt(3)));
+            List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+            SortUtility.bucket(bucketSorted, BUCKET_COMPARATOR);
+            Collections.sort(standardJavaSorted, new Comparator<Person>() {
+                @Override
+                public int compare(Person o1, Person o2) {
+                    return BUCKET_COMPARATOR.compare(o1.getBucket(), o2.getBucket());
+                }
+            });
+
+            assertEquals(standardJavaSorted, bucketSorted);
+        }
+    }
+
+    @Test
+    public void testListSortMetrics() {
+        Random random = new Random();
+        List<Person> bucketSorted = new ArrayList<Person>();
+        for (int i = 0; i < 5000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(3), random.nextInt(4)));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.bucket(bucketSorted, BUCKET_COMPARATOR, metrics);
+
+        assertEquals(12, metrics.getDistinctKeys());
+        assertEquals(bucketSorted.size(), metrics.getMoves());
+        assertTrue(metrics.getComparisons() > 0);
+    }
+
+    @Test
+    public void testWorkspaceListSortIsStable() {
+        Random random = new Random();
+        SortWorkspace workspace = new SortWorkspace();
+        for (int size: new int[] {2000, 5, 500, 3000}) {
+            List<Person> bucketSorted = new ArrayList<Person>();
+            for (int i = 0; i < size; i++)
+                bucketSorted.add(new Person(i, random.nextInt(10), random.nextInt(10)));
+            List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+            SortUtility.bucket(bucketSorted, BUCKET_COMPARATOR, workspace);
+            SortUtility.bucket(standardJavaSorted, BUCKET_COMPARATOR);
+
+            assertEquals(standardJavaSorted, bucketSorted);
+        }
+    }
+
+    @Test
+    public void testWorkspaceReusedAfterFailedSort() {
+        Random random = new Random();
+        SortWorkspace workspace = new SortWorkspace();
+        List<Person> unmodifiable = new ArrayList<Person>();
+        for (int i = 0; i < 1000; i++)
+            unmodifiable.add(new Person(i, random.nextInt(10), random.nextInt(10)));
+        try {
+            //Grouping succeeds and the write back fails, so the table is full when the sort gives up
+            SortUtility.bucket(Collections.unmodifiableList(unmodifiable), BUCKET_COMPARATOR, workspace);
+            fail("An unmodifiable list cannot be sorted");
+        }
+        catch (UnsupportedOperationException e) {
+            //Expected
+        }
+
+        List<Person> bucketSorted = new ArrayList<Person>();
+        for (int i = 0; i < 1000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(10) + 5, random.nextInt(10)));
+        List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+        SortUtility.bucket(bucketSorted, BUCKET_COMPARATOR, workspace);
+        SortUtility.bucket(standardJavaSorted, BUCKET_COMPARATOR);
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testLexicographicListSort() {
+        Random random = new Random();
+        List<Person> bucketSorted = new ArrayList<Person>();
+        for (int i = 0; i < 1000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(10), random.nextInt(10)));
+        List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+        SortUtility.bucket(bucketSorted);
+        SortUtility.bucket(standardJavaSorted, BUCKET_COMPARATOR);
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testIntBucketListSort() {
+        Random random = new Random();
+        List<IntPerson> bucketSorted = new ArrayList<IntPerson>();
+        for (int i = 0; i < 1000; i++)
+            bucketSorted.add(new IntPerson(i, random.nextInt(10) - 5, random.nextInt(10)));
+        List<IntPerson> standardJavaSorted = new ArrayList<IntPerson>(bucketSorted);
+
+        SortUtility.intBucket(bucketSorted);
+        Collections.sort(standardJavaSorted, new Comparator<IntPerson>() {
+            @Override
+            public int compare(IntPerson o1, IntPerson o2) {
+                return o1.getBucket().compareTo(o2.getBucket());
+            }
+        });
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testLongBucketListSort() {
+        Random random = new Random();
+        List<LongBucket> buckets = new ArrayList<LongBucket>();
+        for (int i = 0; i < 1000; i++)
+            buckets.add(new LongBucket(random.nextInt(5) * Long.MAX_VALUE / 4, random.nextInt(3) - 1L));
+        buckets.add(new LongBucket(Long.MIN_VALUE));
+        List<LongPerson> bucketSorted = new ArrayList<LongPerson>();
+        for (LongBucket bucket: buckets)
+            bucketSorted.add(new LongPerson(bucket));
+        List<LongPerson> standardJavaSorted = new ArrayList<LongPerson>(bucketSorted);
+
+        SortUtility.longBucket(bucketSorted);
+        Collections.sort(standardJavaSorted, new Comparator<LongPerson>() {
+            @Override
+            public int compare(LongPerson o1, LongPerson o2) {
+                return o1.getBucket().compareTo(o2.getBucket());
+            }
+        });
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testBucketEquality() {
+        assertEquals(new Bucket<Integer>(1, 2), new Bucket<Integer>(1, 2));
+        assertEquals(new Bucket<Integer>(1, 2).hashCode(), new Bucket<Integer>(1, 2).hashCode());
+        assertFalse(new Bucket<Integer>(1, 2).equals(new Bucket<Integer>(2, 1)));
+        assertEquals(new IntBucket(1, 2), new IntBucket(1, 2));
+        assertFalse(new IntBucket(1, 2).equals(new IntBucket(1)));
+        assertEquals(new LongBucket(1, 2), new LongBucket(1, 2));
+        assertTrue(new IntBucket(1).compareTo(new IntBucket(1, 0)) < 0);
+        assertTrue(new LongBucket(-1, 5).compareTo(new LongBucket(0)) < 0);
+    }
+
+    @Test
+    public void testParallelListSortIsStable() {
+        Random random = new Random();
+        List<Person> bucketSorted = new ArrayList<Person>();
+        for (int i = 0; i < 100000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(100), random.nextInt(10)));
+        List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SortUtility.parallelBucket(bucketSorted, BUCKET_COMPARATOR, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+        SortUtility.bucket(standardJavaSorted, BUCKET_COMPARATOR);
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testParallelSmallListSort() {
+        List<Person> list = new LinkedList<Person>();
+        list.add(new Person(2, 18, 62));
+        list.add(new Person(0, 13, 48));
+        list.add(new Person(1, 18, 55));
+
+        SortUtility.parallelBucket(list, BUCKET_COMPARATOR);
+
+        for (int i = 0; i < list.size(); i++)
+            assertEquals(i, list.get(i).getId());
+    }
+
+    @Test
+    public void testMsdListSortIsStable() {
+        Random random = new Random();
+        List<Person> bucketSorted = new LinkedList<Person>();
+        for (int i = 0; i < 20000; i++)
+            bucketSorted.add(new Person(i, random.nextInt(5), random.nextInt(200)));
+        List<Person> standardJavaSorted = new ArrayList<Person>(bucketSorted);
+
+        SortUtility.msdBucket(bucketSorted);
+        SortUtility.bucket(standardJavaSorted, BUCKET_COMPARATOR);
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testMsdVariableLengthListSort() {
+        Random random = new Random();
+        List<Bucket<String>> buckets = new ArrayList<Bucket<String>>();
+        for (int i = 0; i < 2000; i++) {
+            String[] items = new String[random.nextInt(4)];
+            for (int j = 0; j < items.length; j++)
+                items[j] = Character.toString((char) ('a' + random.nextInt(3)));
+            buckets.add(new Bucket<String>(items));
+        }
+        List<Region> bucketSorted = new ArrayList<Region>();
+        for (Bucket<String> bucket: buckets)
+            bucketSorted.add(new Region(bucket));
+        List<Region> standardJavaSorted = new ArrayList<Region>(bucketSorted);
+
+        //Reverse the component order to check the comparator is used
+        SortUtility.msdBucket(bucketSorted, Collections.<String>reverseOrder());
+        Collections.sort(standardJavaSorted, new Comparator<Region>() {
+            @Override
+            public int compare(Region o1, Region o2) {
+                Bucket<String> b1 = o1.getBucket();
+                Bucket<String> b2 = o2.getBucket();
+                int count = Math.min(b1.getBucketItemCount(), b2.getBucketItemCount());
+                for (int i = 0; i < count; i++) {
+                    int compare = b2.getBucketItem(i).compareTo(b1.getBucketItem(i));
+                    if (compare != 0)
+                        return compare;
+                }
+                return b1.getBucketItemCount() - b2.getBucketItemCount();
+            }
+        });
+
+        assertEquals(standardJavaSorted, bucketSorted);
+    }
+
+    @Test
+    public void testListNull() {
+        try {
+            SortUtility.bucket((List<Person>)null, BUCKET_COMPARATOR);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the list is null");
+        }
+    }
+
+    @Test
+    public void testListEmpty() {
+        try {
+            SortUtility.bucket(new ArrayList<Person>(), BUCKET_COMPARATOR);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the list is empty");
+        }
+    }
+
     private static class Person implements IBucketProvider<Integer> {
         private int m_id;
         private int m_age;
@@ -78,4 +363,47 @@ public class BucketSortTest {
             return new Bucket<Integer>(m_age, m_heightInInches);
         }
     }
+
+    private static class IntPerson implements IIntBucketProvider {
+        private int m_id;
+        private int m_age;
+        private int m_heightInInches;
+
+        public IntPerson(int id, int age, int heightInInches) {
+            m_id = id;
+            m_age = age;
+            m_heightInInches = heightInInches;
+        }
+
+        @Override
+        public IntBucket getBucket() {
+            return new IntBucket(m_age, m_heightInInches);
+        }
+    }
+
+    private static class LongPerson implements ILongBucketProvider {
+        private LongBucket m_bucket;
+
+        public LongPerson(LongBucket bucket) {
+            m_bucket = bucket;
+        }
+
+        @Override
+        public LongBucket getBucket() {
+            return m_bucket;
+        }
+    }
+
+    private static class Region implements IBucketProvider<String> {
+        private Bucket<String> m_bucket;
+
+        public Region(Bucket<String> bucket) {
+            m_bucket = bucket;
+        }
+
+        @Override
+        public Bucket<String> getBucket() {
+            return m_bucket;
+        }
+    }
 }
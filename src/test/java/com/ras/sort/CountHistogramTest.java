@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class CountHistogramTest {
+    @Test
+    public void testHistogramMatchesSortedList() {
+        Random random = new Random();
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            values.add(random.nextInt(100));
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(values);
+        Collections.sort(standardJavaSorted);
+
+        CountHistogram<Integer> histogram = SortUtility.countHistogram(values);
+
+        //Expanding the histogram gives back the sorted list
+        List<Integer> expanded = new ArrayList<Integer>();
+        for (int i = 0; i < histogram.size(); i++) {
+            for (int count = 0; count < histogram.getCount(i); count++)
+                expanded.add(histogram.getKey(i));
+        }
+        assertEquals(standardJavaSorted, expanded);
+        assertEquals(values.size(), histogram.getTotal());
+        assertEquals(new HashSet<Integer>(values).size(), histogram.size());
+    }
+
+    @Test
+    public void testHistogramWithComparator() {
+        List<String> values = Arrays.asList("b", "a", "c", "a", "b", "a");
+
+        CountHistogram<String> histogram = SortUtility.countHistogram(values, Collections.<String>reverseOrder());
+
+        assertEquals("{c=1, b=2, a=3}", histogram.toString());
+    }
+
+    @Test
+    public void testAccumulatorBuildsAsValuesArrive() {
+        CountAccumulator<String> accumulator = new CountAccumulator<String>();
+        accumulator.add("US");
+        accumulator.add("CA");
+        accumulator.add("US");
+
+        CountHistogram<String> first = accumulator.build();
+        accumulator.addAll(Arrays.asList("MX", "CA", "US"));
+        CountHistogram<String> second = accumulator.build();
+
+        assertEquals("{CA=1, US=2}", first.toString());
+        assertEquals("{CA=2, MX=1, US=3}", second.toString());
+        assertEquals(6, second.getTotal());
+        assertEquals(3, accumulator.size());
+    }
+
+    @Test
+    public void testAccumulatorCountsPastIntRange() {
+        CountAccumulator<String> accumulator = new CountAccumulator<String>();
+        accumulator.add("US", Integer.MAX_VALUE);
+        accumulator.add("US", Integer.MAX_VALUE);
+        accumulator.add("US");
+
+        CountHistogram<String> histogram = accumulator.build();
+
+        assertEquals(2L * Integer.MAX_VALUE + 1, histogram.getCount(0));
+        assertEquals(2L * Integer.MAX_VALUE + 1, histogram.getTotal());
+    }
+
+    @Test
+    public void testAccumulatorIgnoresZeroCount() {
+        CountAccumulator<String> accumulator = new CountAccumulator<String>();
+        accumulator.add("US", 2);
+        accumulator.add("CA", 0);
+
+        CountHistogram<String> histogram = accumulator.build();
+
+        //A value added zero times never occurred, so it must not appear as a key
+        assertEquals(1, accumulator.size());
+        assertEquals(1, histogram.size());
+        assertEquals("US", histogram.getKey(0));
+        assertEquals("{US=2}", histogram.toString());
+    }
+
+    @Test
+    public void testAccumulatorOverflowAndNegativeCount() {
+        CountAccumulator<String> accumulator = new CountAccumulator<String>();
+        accumulator.add("US", Long.MAX_VALUE);
+        try {
+            accumulator.add("US");
+            fail("A count past Long.MAX_VALUE should not wrap around");
+        }
+        catch (ArithmeticException e) {
+            //Expected
+        }
+
+        try {
+            accumulator.add("CA", -1);
+            fail("A negative count should be rejected");
+        }
+        catch (IllegalArgumentException e) {
+            //Expected
+        }
+    }
+
+    @Test
+    public void testAccumulatorGrowsPastInitialCapacity() {
+        CountAccumulator<Integer> accumulator = new CountAccumulator<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            accumulator.add(i % 100);
+            accumulator.add(i % 100);
+        }
+
+        CountHistogram<Integer> histogram = accumulator.build();
+
+        assertEquals(100, histogram.size());
+        for (int i = 0; i < histogram.size(); i++) {
+            assertEquals(Integer.valueOf(i), histogram.getKey(i));
+            assertEquals(20, histogram.getCount(i));
+        }
+    }
+
+    @Test
+    public void testHistogramNullAndEmpty() {
+        assertEquals(0, SortUtility.countHistogram((Iterable<String>) null).size());
+        assertEquals(0, SortUtility.countHistogram(new ArrayList<String>()).getTotal());
+    }
+}
@@ -19,12 +19,19 @@ import junit.framework.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 
 /**
  * Created by RAS on 4/24/2014.
@@ -72,6 +79,244 @@ public class CountSortTest {
     }
 
 
+    @Test
+    public void testManyUniquesListSort() {
+        Random random = new Random();
+        List<String> countSorted = new ArrayList<String>();
+        List<String> standardJavaSorted = new ArrayList<String>();
+
+        for (int i = 0; i < 5000; i++) {
+            String next = Integer.toString(random.nextInt(2000));
+            countSorted.add(next);
+            standardJavaSorted.add(next);
+        }
+
+        SortUtility.count(countSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testWorkspaceListSort() {
+        //One workspace across lists that grow, shrink and change unique counts
+        Random random = new Random();
+        SortWorkspace workspace = new SortWorkspace();
+        for (int size: new int[] {1000, 10, 5000, 200, 5000}) {
+            List<Integer> countSorted = new ArrayList<Integer>();
+            for (int i = 0; i < size; i++)
+                countSorted.add(random.nextInt(size / 5 + 1));
+            List<Integer> standardJavaSorted = new ArrayList<Integer>(countSorted);
+
+            SortUtility.count(countSorted, workspace);
+            Collections.sort(standardJavaSorted);
+
+            assertEquals(standardJavaSorted, countSorted);
+        }
+    }
+
+    @Test
+    public void testWorkspaceDropsLargeScratchSpace() {
+        Random random = new Random();
+        SortWorkspace workspace = new SortWorkspace();
+
+        //A sort past the limit is still correct but leaves nothing of its size behind
+        List<Integer> countSorted = new ArrayList<Integer>();
+        for (int i = 0; i < SortWorkspace.MAX_RETAINED_LENGTH * 2; i++)
+            countSorted.add(random.nextInt(SortWorkspace.MAX_RETAINED_LENGTH * 2));
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(countSorted);
+
+        SortUtility.count(countSorted, workspace);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+        assertTrue(workspace.keys(0).length <= SortWorkspace.MAX_RETAINED_LENGTH);
+        assertTrue(workspace.offsets(0).length <= SortWorkspace.MAX_RETAINED_LENGTH);
+        assertEquals(0, workspace.counts().size());
+    }
+
+    @Test
+    public void testWorkspaceReusedAfterFailedSort() {
+        Random random = new Random();
+        SortWorkspace workspace = new SortWorkspace();
+        List<Integer> unmodifiable = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+            unmodifiable.add(random.nextInt(100));
+        try {
+            //Counting succeeds and the rewrite fails, so the table is full when the sort gives up
+            SortUtility.count(Collections.unmodifiableList(unmodifiable), workspace);
+            fail("An unmodifiable list cannot be sorted");
+        }
+        catch (UnsupportedOperationException e) {
+            //Expected
+        }
+
+        List<Integer> countSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+            countSorted.add(random.nextInt(50) + 50);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(countSorted);
+
+        SortUtility.count(countSorted, workspace);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testThreadWorkspaceListSort() {
+        Random random = new Random();
+        List<String> countSorted = new LinkedList<String>();
+        for (int i = 0; i < 1000; i++)
+            countSorted.add(Integer.toString(random.nextInt(50)));
+        List<String> standardJavaSorted = new ArrayList<String>(countSorted);
+
+        SortUtility.count(countSorted, SortWorkspace.forCurrentThread());
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testOrderedUniquesListSort() {
+        List<String> list = new ArrayList<String>();
+        list.add("low");
+        list.add("high");
+        list.add("medium");
+        list.add("high");
+        list.add("low");
+
+        SortUtility.count(list, Arrays.asList("high", "medium", "low"));
+
+        assertEquals(Arrays.asList("high", "high", "medium", "low", "low"), list);
+    }
+
+    @Test
+    public void testOrderedUniquesMissingValue() {
+        List<String> list = new ArrayList<String>();
+        list.add("low");
+        list.add("unknown");
+
+        try {
+            SortUtility.count(list, Arrays.asList("high", "medium", "low"));
+            fail("A value missing from orderedUniques should throw an exception");
+        }
+        catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testParallelListSort() {
+        Random random = new Random();
+        List<Integer> countSorted = new ArrayList<Integer>();
+        List<Integer> standardJavaSorted = new ArrayList<Integer>();
+
+        for (int i = 0; i < 100000; i++) {
+            int next = random.nextInt(50);
+            countSorted.add(next);
+            standardJavaSorted.add(next);
+        }
+
+        SortUtility.parallelCount(countSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testParallelListSortWithPool() {
+        Random random = new Random();
+        String[] values = new String[100000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = Integer.toString(random.nextInt(20000));
+        List<String> countSorted = Arrays.asList(values.clone());
+        List<String> standardJavaSorted = new ArrayList<String>(countSorted);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            SortUtility.parallelCount(countSorted, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testParallelLinkedListSort() {
+        Random random = new Random();
+        List<Integer> countSorted = new LinkedList<Integer>();
+        List<Integer> standardJavaSorted = new ArrayList<Integer>();
+
+        for (int i = 0; i < 20000; i++) {
+            int next = random.nextInt(50);
+            countSorted.add(next);
+            standardJavaSorted.add(next);
+        }
+
+        SortUtility.parallelCount(countSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testParallelListNull() {
+        try {
+            SortUtility.parallelCount((List<String>)null);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the list is null");
+        }
+    }
+
+    @Test
+    public void testStableListSortKeepsInstances() {
+        Random random = new Random();
+        List<Order> countSorted = new LinkedList<Order>();
+        for (int i = 0; i < 5000; i++)
+            countSorted.add(new Order(random.nextInt(20), i));
+        List<Order> standardJavaSorted = new ArrayList<Order>(countSorted);
+
+        SortUtility.stableCount(countSorted);
+        Collections.sort(standardJavaSorted);
+
+        //Compare instances since equal orders are only distinguished by their ids
+        assertEquals(standardJavaSorted.size(), countSorted.size());
+        Iterator<Order> iterator = countSorted.iterator();
+        for (Order order: standardJavaSorted)
+            assertSame(order, iterator.next());
+    }
+
+    @Test
+    public void testStableOrderedUniquesListSort() {
+        List<Order> list = new ArrayList<Order>();
+        Order low1 = new Order(3, 0);
+        Order high1 = new Order(1, 1);
+        Order medium = new Order(2, 2);
+        Order high2 = new Order(1, 3);
+        Order low2 = new Order(3, 4);
+        list.addAll(Arrays.asList(low1, high1, medium, high2, low2));
+
+        SortUtility.stableCount(list, Arrays.asList(new Order(1, -1), new Order(2, -1), new Order(3, -1)));
+
+        List<Order> expected = Arrays.asList(high1, high2, medium, low1, low2);
+        for (int i = 0; i < expected.size(); i++)
+            assertSame(expected.get(i), list.get(i));
+    }
+
+    @Test
+    public void testStableListNull() {
+        try {
+            SortUtility.stableCount((List<String>)null);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the list is null");
+        }
+    }
+
     @Test
     public void testListNull() {
         try {
@@ -91,4 +336,176 @@ public class CountSortTest {
             fail("An error should not be thrown even if the list is empty");
         }
     }
+
+    @Test
+    public void testDenseIntArraySort() {
+        Random random = new Random();
+        int[] countSorted = new int[1000];
+        for (int i = 0; i < countSorted.length; i++)
+            countSorted[i] = random.nextInt(100) - 50;
+        int[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testSparseIntArraySort() {
+        Random random = new Random();
+        int[] countSorted = new int[1000];
+        for (int i = 0; i < countSorted.length; i++)
+            countSorted[i] = random.nextInt(20) * 100000000;
+        countSorted[0] = Integer.MIN_VALUE;
+        countSorted[1] = Integer.MAX_VALUE;
+        int[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testDenseLongArraySort() {
+        Random random = new Random();
+        long[] countSorted = new long[1000];
+        for (int i = 0; i < countSorted.length; i++)
+            countSorted[i] = Long.MAX_VALUE - random.nextInt(100);
+        long[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testSparseLongArraySort() {
+        Random random = new Random();
+        long[] countSorted = new long[1000];
+        for (int i = 0; i < countSorted.length; i++)
+            countSorted[i] = random.nextLong();
+        countSorted[0] = Long.MIN_VALUE;
+        countSorted[1] = Long.MAX_VALUE;
+        countSorted[2] = countSorted[3];
+        long[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testSmallPrimitiveArraySort() {
+        //Arrays this small are sorted by a sorting network, so try every length it covers
+        Random random = new Random();
+        for (int length = 0; length <= 16; length++) {
+            for (int round = 0; round < 100; round++) {
+                int[] countSorted = new int[length];
+                long[] longCountSorted = new long[length];
+                for (int i = 0; i < length; i++) {
+                    countSorted[i] = random.nextInt(8) - 4;
+                    longCountSorted[i] = random.nextLong();
+                }
+                int[] standardJavaSorted = countSorted.clone();
+                long[] longStandardJavaSorted = longCountSorted.clone();
+
+                SortUtility.count(countSorted);
+                SortUtility.count(longCountSorted);
+                Arrays.sort(standardJavaSorted);
+                Arrays.sort(longStandardJavaSorted);
+
+                assertArrayEquals(standardJavaSorted, countSorted);
+                assertArrayEquals(longStandardJavaSorted, longCountSorted);
+            }
+        }
+    }
+
+    @Test
+    public void testShortArraySort() {
+        Random random = new Random();
+        short[] countSorted = new short[1000];
+        for (int i = 0; i < countSorted.length; i++)
+            countSorted[i] = (short) random.nextInt();
+        short[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testCharArraySort() {
+        char[] countSorted = "the quick brown fox jumps over the lazy dog".toCharArray();
+        char[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testByteArraySort() {
+        Random random = new Random();
+        byte[] countSorted = new byte[1000];
+        random.nextBytes(countSorted);
+        byte[] standardJavaSorted = countSorted.clone();
+
+        SortUtility.count(countSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testPrimitiveArrayNullAndEmpty() {
+        try {
+            SortUtility.count((int[])null);
+            SortUtility.count(new int[0]);
+            SortUtility.count((long[])null);
+            SortUtility.count(new long[0]);
+            SortUtility.count((short[])null);
+            SortUtility.count(new short[0]);
+            SortUtility.count((char[])null);
+            SortUtility.count(new char[0]);
+            SortUtility.count((byte[])null);
+            SortUtility.count(new byte[0]);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the array is null or empty");
+        }
+    }
+
+    private static class Order implements Comparable<Order> {
+        private int m_status;
+        private int m_id;
+
+        public Order(int status, int id) {
+            m_status = status;
+            m_id = id;
+        }
+
+        @Override
+        public int compareTo(Order o) {
+            return m_status - o.m_status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            return m_status == ((Order) o).m_status;
+        }
+
+        @Override
+        public int hashCode() {
+            return m_status;
+        }
+    }
 }
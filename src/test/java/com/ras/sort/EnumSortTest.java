@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.metrics.SortMetrics;
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class EnumSortTest {
+    private enum Priority {
+        LOW, MEDIUM, HIGH, CRITICAL {
+            @Override
+            public String toString() {
+                //A constant with a body is a subclass of the enum
+                return "critical";
+            }
+        }
+    }
+
+    @Test
+    public void testDeclarationOrderListSort() {
+        Random random = new Random();
+        Priority[] values = Priority.values();
+        List<Priority> countSorted = new ArrayList<Priority>();
+        for (int i = 0; i < 10000; i++)
+            countSorted.add(values[random.nextInt(values.length)]);
+        List<Priority> standardJavaSorted = new ArrayList<Priority>(countSorted);
+
+        EnumSort.count(countSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testOrderedUniquesListSort() {
+        List<Priority> list = new LinkedList<Priority>(Arrays.asList(Priority.LOW, Priority.CRITICAL, Priority.HIGH,
+                Priority.LOW, Priority.CRITICAL));
+
+        EnumSort.count(list, Arrays.asList(Priority.CRITICAL, Priority.HIGH, Priority.MEDIUM, Priority.LOW));
+
+        assertEquals(Arrays.asList(Priority.CRITICAL, Priority.CRITICAL, Priority.HIGH, Priority.LOW, Priority.LOW), list);
+    }
+
+    @Test
+    public void testSortUtilityUsesOrdinals() {
+        Random random = new Random();
+        Priority[] values = Priority.values();
+        List<Priority> countSorted = new ArrayList<Priority>();
+        for (int i = 0; i < 10000; i++)
+            countSorted.add(values[random.nextInt(values.length)]);
+        List<Priority> standardJavaSorted = new ArrayList<Priority>(countSorted);
+
+        SortUtility.count(countSorted, Arrays.asList(Priority.HIGH, Priority.LOW, Priority.CRITICAL, Priority.MEDIUM));
+        Collections.sort(standardJavaSorted, new Comparator<Priority>() {
+            private final List<Priority> m_order = Arrays.asList(Priority.HIGH, Priority.LOW, Priority.CRITICAL, Priority.MEDIUM);
+
+            @Override
+            public int compare(Priority o1, Priority o2) {
+                return m_order.indexOf(o1) - m_order.indexOf(o2);
+            }
+        });
+
+        assertEquals(standardJavaSorted, countSorted);
+    }
+
+    @Test
+    public void testOrderedUniquesMissingValue() {
+        List<Priority> list = new ArrayList<Priority>(Arrays.asList(Priority.LOW, Priority.HIGH));
+        try {
+            SortUtility.count(list, Arrays.asList(Priority.HIGH));
+            fail("A value missing from orderedUniques should throw an exception.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testNullElement() {
+        List<Priority> list = new ArrayList<Priority>(Arrays.asList(Priority.LOW, null));
+        try {
+            EnumSort.count(list);
+            fail("A null element should throw an exception.");
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("The list parameter cannot contain null.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testOrderedUniquesWithDuplicates() {
+        List<Priority> list = new ArrayList<Priority>(Arrays.asList(Priority.LOW, Priority.HIGH, Priority.LOW));
+        SortMetrics metrics = new SortMetrics();
+
+        //The repeated HIGH keeps its first position and is not counted as another unique
+        SortUtility.count(list, Arrays.asList(Priority.HIGH, Priority.LOW, Priority.HIGH), metrics);
+
+        assertEquals(Arrays.asList(Priority.HIGH, Priority.LOW, Priority.LOW), list);
+        assertEquals(2, metrics.getDistinctKeys());
+    }
+
+    @Test
+    public void testListNullAndEmpty() {
+        try {
+            EnumSort.count((List<Priority>) null);
+            EnumSort.count(new ArrayList<Priority>());
+        }
+        catch (Exception e) {
+            fail("Sorting a null or empty list should not throw an exception.");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class InsertionSortTest {
+    @Test
+    public void testBasicListSort() {
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2, 5, 4));
+
+        SortUtility.insertionSort(list);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), list);
+    }
+
+    @Test
+    public void testRandomListSort() {
+        Random random = new Random();
+        for (int size = 0; size < 40; size++) {
+            List<Integer> insertionSorted = new LinkedList<Integer>();
+            for (int i = 0; i < size; i++)
+                insertionSorted.add(random.nextInt(10));
+            List<Integer> standardJavaSorted = new ArrayList<Integer>(insertionSorted);
+
+            SortUtility.insertionSort(insertionSorted);
+            Collections.sort(standardJavaSorted);
+
+            assertEquals(standardJavaSorted, insertionSorted);
+        }
+    }
+
+    @Test
+    public void testListSortIsStable() {
+        Random random = new Random();
+        List<int[]> insertionSorted = new ArrayList<int[]>();
+        for (int i = 0; i < 500; i++)
+            insertionSorted.add(new int[] {random.nextInt(5), i});
+        List<int[]> standardJavaSorted = new ArrayList<int[]>(insertionSorted);
+        Comparator<int[]> byFirst = new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                return o1[0] - o2[0];
+            }
+        };
+
+        SortUtility.insertionSort(insertionSorted, byFirst);
+        Collections.sort(standardJavaSorted, byFirst);
+
+        assertEquals(standardJavaSorted, insertionSorted);
+    }
+
+    @Test
+    public void testListNullAndEmpty() {
+        try {
+            SortUtility.insertionSort((List<String>) null);
+            SortUtility.insertionSort(new ArrayList<String>());
+        }
+        catch (Exception e) {
+            fail("Sorting a null or empty list should not throw an exception.");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.key.IKeyExtractor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class KeySortTest {
+    @Test
+    public void testKeyExtractedOncePerElement() {
+        Random random = new Random();
+        List<String> keySorted = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++)
+            keySorted.add(Integer.toString(random.nextInt(1000000)));
+        List<String> standardJavaSorted = new ArrayList<String>(keySorted);
+        final int[] extractions = new int[1];
+
+        SortUtility.sortByKey(keySorted, new IKeyExtractor<String, Integer>() {
+            @Override
+            public Integer getKey(String item) {
+                extractions[0]++;
+                return Integer.valueOf(item);
+            }
+        });
+        Collections.sort(standardJavaSorted, new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return Integer.valueOf(o1).compareTo(Integer.valueOf(o2));
+            }
+        });
+
+        assertEquals(standardJavaSorted, keySorted);
+        assertEquals(keySorted.size(), extractions[0]);
+    }
+
+    @Test
+    public void testListSortIsStable() {
+        Random random = new Random();
+        List<int[]> keySorted = new LinkedList<int[]>();
+        for (int i = 0; i < 5000; i++)
+            keySorted.add(new int[] {random.nextInt(20), i});
+        List<int[]> standardJavaSorted = new ArrayList<int[]>(keySorted);
+
+        SortUtility.sortByKey(keySorted, new IKeyExtractor<int[], Integer>() {
+            @Override
+            public Integer getKey(int[] item) {
+                return item[0];
+            }
+        });
+        //Collections.sort is stable so equal keys stay in insertion order
+        Collections.sort(standardJavaSorted, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                return o1[0] - o2[0];
+            }
+        });
+
+        assertEquals(standardJavaSorted, keySorted);
+    }
+
+    @Test
+    public void testListSortWithKeyComparator() {
+        List<String> list = new ArrayList<String>(Arrays.asList("ccc", "a", "dddd", "bb"));
+
+        SortUtility.sortByKey(list, new IKeyExtractor<String, Integer>() {
+            @Override
+            public Integer getKey(String item) {
+                return item.length();
+            }
+        }, Collections.<Integer>reverseOrder());
+
+        assertEquals(Arrays.asList("dddd", "ccc", "bb", "a"), list);
+    }
+
+    @Test
+    public void testListNullAndEmpty() {
+        IKeyExtractor<String, String> identity = new IKeyExtractor<String, String>() {
+            @Override
+            public String getKey(String item) {
+                return item;
+            }
+        };
+        try {
+            SortUtility.sortByKey((List<String>) null, identity);
+            SortUtility.sortByKey(new ArrayList<String>(), identity);
+        }
+        catch (Exception e) {
+            fail("Sorting a null or empty list should not throw an exception.");
+        }
+    }
+}
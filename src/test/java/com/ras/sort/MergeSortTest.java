@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+
+public class MergeSortTest {
+    @Test
+    public void testMergeSortedBatch() {
+        Random random = new Random();
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            list.add(random.nextInt(100000));
+        Collections.sort(list);
+        List<Integer> batch = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++)
+            batch.add(random.nextInt(100000));
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        standardJavaSorted.addAll(batch);
+        Collections.sort(standardJavaSorted);
+
+        SortUtility.mergeSortedBatch(list, batch);
+
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testMergeSortedBatchLinkedList() {
+        List<Integer> list = new LinkedList<Integer>(Arrays.asList(1, 3, 5, 7, 9));
+
+        SortUtility.mergeSortedBatch(list, Arrays.asList(8, 2, 10, 6));
+
+        assertEquals(Arrays.asList(1, 2, 3, 5, 6, 7, 8, 9, 10), list);
+    }
+
+    @Test
+    public void testMergeSortedBatchAtEnds() {
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(5, 6, 7));
+
+        SortUtility.mergeSortedBatch(list, Arrays.asList(9, 8));
+        SortUtility.mergeSortedBatch(list, Arrays.asList(1, 0));
+
+        assertEquals(Arrays.asList(0, 1, 5, 6, 7, 8, 9), list);
+    }
+
+    @Test
+    public void testMergeSortedBatchStable() {
+        //Equal new items go after the existing ones, in the order they were given
+        Comparator<String> byLength = new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return o1.length() - o2.length();
+            }
+        };
+        String existing = new String("bb");
+        String first = new String("xx");
+        String second = new String("yy");
+        List<String> list = new ArrayList<String>(Arrays.asList("a", existing, "ccc"));
+
+        SortUtility.mergeSortedBatch(list, Arrays.asList(first, second), byLength);
+
+        assertEquals(5, list.size());
+        assertSame(existing, list.get(1));
+        assertSame(first, list.get(2));
+        assertSame(second, list.get(3));
+    }
+
+    @Test
+    public void testMergeNearlySortedList() {
+        Random random = new Random();
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            list.add(i);
+        for (int i = 0; i < 100; i++)
+            Collections.swap(list, random.nextInt(list.size()), random.nextInt(list.size()));
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        SortUtility.merge(list);
+
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testMergeSortedBatchNullAndEmpty() {
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(1, 2));
+        try {
+            SortUtility.mergeSortedBatch(list, null);
+            SortUtility.mergeSortedBatch(list, new ArrayList<Integer>());
+            SortUtility.mergeSortedBatch(new ArrayList<Integer>(), new ArrayList<Integer>());
+        }
+        catch (Exception e) {
+            fail("Merging a null or empty batch should not throw an exception.");
+        }
+        assertEquals(Arrays.asList(1, 2), list);
+
+        try {
+            SortUtility.mergeSortedBatch(null, Arrays.asList(1));
+            fail("Merging into a null list should throw an exception.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.ras.sort;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static junit.framework.Assert.fail;
 import static junit.framework.TestCase.assertEquals;
@@ -135,4 +136,160 @@ public class QuickSortTest {
             assertEquals(Integer.valueOf(index / 2), list.get(index));
         }
     }
+
+    @Test
+    public void testTwoElementSort() {
+        List<Integer> list = new ArrayList<Integer>();
+        list.add(1);
+        list.add(0);
+
+        SortUtility.quickSort(list, 0, list.size() - 1);
+
+        assertEquals(Arrays.asList(0, 1), list);
+    }
+
+    @Test
+    public void testLargeAllEqualListSort() {
+        //A two way partition puts every element on the same side so this relies on equal keys being grouped
+        List<Integer> list = new ArrayList<Integer>(Collections.nCopies(200000, 7));
+
+        SortUtility.quickSort(list, 0, list.size() - 1);
+
+        assertEquals(Collections.nCopies(200000, 7), list);
+    }
+
+    @Test
+    public void testLargeStructuredListSort() {
+        List<Integer> sorted = new ArrayList<Integer>();
+        List<Integer> reversed = new ArrayList<Integer>();
+        List<Integer> organPipe = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            sorted.add(i);
+            reversed.add(100000 - i);
+            organPipe.add(Math.min(i, 100000 - i));
+        }
+
+        for (List<Integer> quickSorted: Arrays.asList(sorted, reversed, organPipe)) {
+            List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+            SortUtility.quickSort(quickSorted, 0, quickSorted.size() - 1);
+            Collections.sort(standardJavaSorted);
+
+            assertEquals(standardJavaSorted, quickSorted);
+        }
+    }
+
+    @Test
+    public void testDescendingWithDuplicatesSubsetSort() {
+        //Non increasing ranges are reversed rather than partitioned
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(0, 5, 5, 4, 2, 2, 2, 1, 9));
+
+        SortUtility.quickSort(list, 1, list.size() - 2);
+
+        assertEquals(Arrays.asList(0, 1, 2, 2, 2, 4, 5, 5, 9), list);
+    }
+
+    @Test
+    public void testLargeRandomListSort() {
+        Random random = new Random();
+        List<Integer> quickSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            quickSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+
+        SortUtility.quickSort(quickSorted, 0, quickSorted.size() - 1);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    @Test
+    public void testLargeFewDistinctListSort() {
+        Random random = new Random();
+        List<String> quickSorted = new ArrayList<String>();
+        String[] codes = {"US", "CA", "MX", "GB", "FR"};
+        for (int i = 0; i < 200000; i++)
+            quickSorted.add(codes[random.nextInt(codes.length)]);
+        List<String> standardJavaSorted = new ArrayList<String>(quickSorted);
+
+        SortUtility.quickSort(quickSorted, 0, quickSorted.size() - 1);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    @Test
+    public void testLinkedListSort() {
+        Random random = new Random();
+        List<Integer> quickSorted = new LinkedList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            quickSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+
+        SortUtility.quickSort(quickSorted, 0, quickSorted.size() - 1);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    @Test
+    public void testLinkedListSubsetSort() {
+        List<Integer> list = new LinkedList<Integer>(Arrays.asList(9, 3, 2, 1, 0, -1));
+
+        //Sort all but the first and last element
+        SortUtility.quickSort(list, 1, list.size() - 2);
+
+        assertEquals(Arrays.asList(9, 0, 1, 2, 3, -1), list);
+    }
+
+    @Test
+    public void testParallelListSort() {
+        Random random = new Random();
+        List<Integer> quickSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 200000; i++)
+            quickSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+
+        SortUtility.parallelQuickSort(quickSorted);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    @Test
+    public void testParallelListSortWithPool() {
+        Random random = new Random();
+        List<String> quickSorted = new LinkedList<String>();
+        for (int i = 0; i < 50000; i++)
+            quickSorted.add(Integer.toString(random.nextInt(1000)));
+        List<String> standardJavaSorted = new ArrayList<String>(quickSorted);
+
+        //Reverse order
+        Comparator<String> comparator = new Comparator<String>() {
+            @Override
+            public int compare(String o1, String o2) {
+                return o2.compareTo(o1);
+            }
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            SortUtility.parallelQuickSort(quickSorted, comparator, pool, 100);
+        }
+        finally {
+            pool.shutdown();
+        }
+        Collections.sort(standardJavaSorted, comparator);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    @Test
+    public void testParallelListNull() {
+        try {
+            SortUtility.parallelQuickSort((List<String>)null);
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the list is null");
+        }
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.key.IDoubleKeyExtractor;
+import com.ras.sort.key.IIntKeyExtractor;
+import com.ras.sort.key.ILongKeyExtractor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+
+public class RadixSortTest {
+    @Test
+    public void testIntArraySort() {
+        Random random = new Random();
+        int[] radixSorted = new int[1000];
+        for (int i = 0; i < radixSorted.length; i++)
+            radixSorted[i] = random.nextInt();
+        radixSorted[0] = Integer.MIN_VALUE;
+        radixSorted[1] = Integer.MAX_VALUE;
+        int[] standardJavaSorted = radixSorted.clone();
+
+        SortUtility.radix(radixSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, radixSorted);
+    }
+
+    @Test
+    public void testSmallRangeIntArraySort() {
+        //Only the lowest digit differs so every other pass is skipped
+        Random random = new Random();
+        int[] radixSorted = new int[1000];
+        for (int i = 0; i < radixSorted.length; i++)
+            radixSorted[i] = 5000 + random.nextInt(200);
+        int[] standardJavaSorted = radixSorted.clone();
+
+        SortUtility.radix(radixSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, radixSorted);
+    }
+
+    @Test
+    public void testSmallArraySort() {
+        //Arrays this small are sorted by a sorting network, so try every length it covers
+        Random random = new Random();
+        for (int length = 0; length <= 16; length++) {
+            for (int round = 0; round < 100; round++) {
+                int[] radixSorted = new int[length];
+                long[] longRadixSorted = new long[length];
+                for (int i = 0; i < length; i++) {
+                    radixSorted[i] = random.nextInt();
+                    longRadixSorted[i] = random.nextInt(4);
+                }
+                int[] standardJavaSorted = radixSorted.clone();
+                long[] longStandardJavaSorted = longRadixSorted.clone();
+
+                SortUtility.radix(radixSorted);
+                SortUtility.radix(longRadixSorted);
+                Arrays.sort(standardJavaSorted);
+                Arrays.sort(longStandardJavaSorted);
+
+                assertArrayEquals(standardJavaSorted, radixSorted);
+                assertArrayEquals(longStandardJavaSorted, longRadixSorted);
+            }
+        }
+    }
+
+    @Test
+    public void testLongArraySort() {
+        Random random = new Random();
+        long[] radixSorted = new long[1000];
+        for (int i = 0; i < radixSorted.length; i++)
+            radixSorted[i] = random.nextLong();
+        radixSorted[0] = Long.MIN_VALUE;
+        radixSorted[1] = Long.MAX_VALUE;
+        long[] standardJavaSorted = radixSorted.clone();
+
+        SortUtility.radix(radixSorted);
+        Arrays.sort(standardJavaSorted);
+
+        assertArrayEquals(standardJavaSorted, radixSorted);
+    }
+
+    @Test
+    public void testIntKeyListSortIsStable() {
+        Random random = new Random();
+        List<int[]> radixSorted = new LinkedList<int[]>();
+        for (int i = 0; i < 1000; i++)
+            radixSorted.add(new int[] {random.nextInt(20) - 10, i});
+
+        SortUtility.radixByInt(radixSorted, new IIntKeyExtractor<int[]>() {
+            @Override
+            public int getKey(int[] item) {
+                return item[0];
+            }
+        });
+
+        int[] previous = null;
+        for (int[] item: radixSorted) {
+            if (previous != null && (previous[0] > item[0] || (previous[0] == item[0] && previous[1] > item[1])))
+                fail("The list is not sorted or equal keys changed order");
+            previous = item;
+        }
+    }
+
+    @Test
+    public void testLongKeyListSort() {
+        Random random = new Random();
+        List<Long> radixSorted = new ArrayList<Long>();
+        List<Long> standardJavaSorted = new ArrayList<Long>();
+        for (int i = 0; i < 1000; i++) {
+            long next = random.nextLong();
+            radixSorted.add(next);
+            standardJavaSorted.add(next);
+        }
+
+        SortUtility.radixByLong(radixSorted, new ILongKeyExtractor<Long>() {
+            @Override
+            public long getKey(Long item) {
+                return item.longValue();
+            }
+        });
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, radixSorted);
+    }
+
+    @Test
+    public void testDoubleKeyListSort() {
+        Random random = new Random();
+        List<Double> radixSorted = new ArrayList<Double>();
+        for (int i = 0; i < 1000; i++)
+            radixSorted.add((random.nextDouble() - 0.5) * 1e6);
+        radixSorted.addAll(Arrays.asList(Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -0.0, 0.0,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE));
+        Collections.shuffle(radixSorted, random);
+        List<Double> standardJavaSorted = new ArrayList<Double>(radixSorted);
+
+        SortUtility.radixByDouble(radixSorted, new IDoubleKeyExtractor<Double>() {
+            @Override
+            public double getKey(Double item) {
+                return item.doubleValue();
+            }
+        });
+        //Double.compareTo has the same ordering of -0.0 and NaN
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, radixSorted);
+    }
+
+    @Test
+    public void testKeyListSortWithLambdas() {
+        //Each key type has its own method name, so lambdas never need a cast to pick an overload
+        Random random = new Random();
+        List<Long> intSorted = new ArrayList<Long>();
+        for (int i = 0; i < 1000; i++)
+            intSorted.add((long) random.nextInt());
+        List<Long> longSorted = new ArrayList<Long>(intSorted);
+        List<Long> doubleSorted = new ArrayList<Long>(intSorted);
+        List<Long> standardJavaSorted = new ArrayList<Long>(intSorted);
+
+        SortUtility.radixByInt(intSorted, item -> item.intValue());
+        SortUtility.radixByLong(longSorted, item -> item);
+        SortUtility.radixByDouble(doubleSorted, item -> item);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, intSorted);
+        assertEquals(standardJavaSorted, longSorted);
+        assertEquals(standardJavaSorted, doubleSorted);
+    }
+
+    @Test
+    public void testNullAndEmpty() {
+        try {
+            SortUtility.radix((int[])null);
+            SortUtility.radix(new long[0]);
+            SortUtility.radixByInt(null, new IIntKeyExtractor<String>() {
+                @Override
+                public int getKey(String item) {
+                    return item.length();
+                }
+            });
+            SortUtility.radixByInt(new ArrayList<String>(), new IIntKeyExtractor<String>() {
+                @Override
+                public int getKey(String item) {
+                    return item.length();
+                }
+            });
+        }
+        catch (Throwable t) {
+            fail("An error should not be thrown even if the input is null or empty");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.record.RecordKeyType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class RecordSortTest {
+    //12 byte records of a 4 byte key at offset 2 with the record number spread around it
+    private static final int WIDTH = 12;
+    private static final int KEY_OFFSET = 2;
+
+    @Rule
+    public TemporaryFolder m_folder = new TemporaryFolder();
+
+    @Test
+    public void testIntKeySort() {
+        Random random = new Random();
+        int[] keys = new int[1000];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextInt();
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * WIDTH);
+        write(buffer, keys);
+
+        SortUtility.quickSort(buffer, WIDTH, KEY_OFFSET, RecordKeyType.INT);
+
+        assertSorted(buffer, keys);
+    }
+
+    @Test
+    public void testFewDistinctIntKeySort() {
+        Random random = new Random();
+        int[] keys = new int[1000];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextInt(3);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(keys.length * WIDTH);
+        write(buffer, keys);
+
+        SortUtility.quickSort(buffer, WIDTH, KEY_OFFSET, RecordKeyType.INT);
+
+        assertSorted(buffer, keys);
+    }
+
+    @Test
+    public void testLittleEndianLongKeySort() {
+        Random random = new Random();
+        int count = 1000;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * 16).order(ByteOrder.LITTLE_ENDIAN);
+        List<Long> expected = new ArrayList<Long>();
+        for (int i = 0; i < count; i++) {
+            long key = random.nextLong();
+            expected.add(key);
+            buffer.putLong(i * 16, key);
+            buffer.putLong(i * 16 + 8, ~key);
+        }
+        Collections.sort(expected);
+
+        SortUtility.quickSort(buffer, 16, 0, RecordKeyType.LONG);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.get(i).longValue(), buffer.getLong(i * 16));
+            assertEquals(~expected.get(i), buffer.getLong(i * 16 + 8));
+        }
+    }
+
+    @Test
+    public void testDoubleKeySort() {
+        Random random = new Random();
+        double[] keys = new double[1000];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextGaussian() * 1000;
+        keys[0] = Double.NEGATIVE_INFINITY;
+        keys[1] = -0.0;
+        keys[2] = 0.0;
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * 8);
+        for (double key : keys)
+            buffer.putDouble(key);
+        buffer.flip();
+        double[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        SortUtility.quickSort(buffer, 8, 0, RecordKeyType.DOUBLE);
+
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(buffer.getDouble(i * 8)));
+    }
+
+    @Test
+    public void testSortBetweenPositionAndLimit() {
+        int[] keys = new int[] {5, 4, 3, 2, 1, 0};
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * WIDTH);
+        write(buffer, keys);
+        buffer.position(WIDTH).limit(5 * WIDTH);
+
+        SortUtility.quickSort(buffer, WIDTH, KEY_OFFSET, RecordKeyType.INT);
+
+        assertEquals(WIDTH, buffer.position());
+        assertEquals(5 * WIDTH, buffer.limit());
+        buffer.clear();
+        int[] expected = new int[] {5, 1, 2, 3, 4, 0};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], buffer.getInt(i * WIDTH + KEY_OFFSET));
+    }
+
+    @Test
+    public void testMappedFileSort() throws Exception {
+        Random random = new Random();
+        int[] keys = new int[10000];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextInt();
+        File file = m_folder.newFile("records.bin");
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, keys.length * WIDTH);
+            write(buffer, keys);
+
+            SortUtility.quickSort(buffer, WIDTH, KEY_OFFSET, RecordKeyType.INT);
+
+            assertSorted(buffer, keys);
+        }
+        finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Test
+    public void testInvalidRecordWidth() {
+        try {
+            SortUtility.quickSort(ByteBuffer.allocate(10), 4, 0, RecordKeyType.INT);
+            fail("A buffer that is not a whole number of records should be rejected.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+
+        try {
+            SortUtility.quickSort(ByteBuffer.allocate(16), 8, 6, RecordKeyType.INT);
+            fail("A key that does not fit in the record should be rejected.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testNullAndEmptyBuffer() {
+        try {
+            SortUtility.quickSort((ByteBuffer) null, WIDTH, KEY_OFFSET, RecordKeyType.INT);
+            SortUtility.quickSort(ByteBuffer.allocate(0), WIDTH, KEY_OFFSET, RecordKeyType.INT);
+        }
+        catch (Exception e) {
+            fail("Sorting a null or empty buffer should not throw an exception.");
+        }
+    }
+
+    /**
+     * Writes each key into its record, with the record number before and after the key.
+     */
+    private static void write(ByteBuffer buffer, int[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            int record = i * WIDTH;
+            buffer.putShort(record, (short) i);
+            buffer.putInt(record + KEY_OFFSET, keys[i]);
+            buffer.putShort(record + 6, (short) (i >> 16));
+            buffer.putInt(record + 8, i);
+        }
+    }
+
+    /**
+     * Checks that the keys are in order and that every record was moved as a whole.
+     */
+    private static void assertSorted(ByteBuffer buffer, int[] keys) {
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        for (int i = 0; i < expected.length; i++) {
+            int record = i * WIDTH;
+            int original = buffer.getInt(record + 8);
+            assertEquals(expected[i], buffer.getInt(record + KEY_OFFSET));
+            assertEquals(keys[original], buffer.getInt(record + KEY_OFFSET));
+            assertEquals((short) original, buffer.getShort(record));
+            assertEquals((short) (original >> 16), buffer.getShort(record + 6));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class SelectTest {
+    @Test
+    public void testSelect() {
+        Random random = new Random();
+        List<Integer> list = randomList(random, 10000, 1000000);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        for (int k : new int[] {0, 1, 5000, 9998, 9999}) {
+            Collections.shuffle(list, random);
+            Integer selected = SortUtility.select(list, k);
+
+            assertEquals(standardJavaSorted.get(k), selected);
+            assertEquals(selected, list.get(k));
+            for (int i = 0; i < k; i++)
+                assertTrue(list.get(i) <= selected);
+            for (int i = k + 1; i < list.size(); i++)
+                assertTrue(list.get(i) >= selected);
+        }
+    }
+
+    @Test
+    public void testSelectFewDistinct() {
+        Random random = new Random();
+        List<Integer> list = randomList(random, 10000, 3);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted.get(5000), SortUtility.select(list, 5000));
+    }
+
+    @Test
+    public void testSelectWithComparator() {
+        List<Integer> list = new LinkedList<Integer>(Arrays.asList(4, 9, 1, 7, 3));
+
+        assertEquals(Integer.valueOf(7), SortUtility.select(list, Collections.<Integer>reverseOrder(), 1));
+        assertEquals(Integer.valueOf(7), list.get(1));
+    }
+
+    @Test
+    public void testSelectOutOfRange() {
+        try {
+            SortUtility.select(new ArrayList<Integer>(Arrays.asList(1, 2, 3)), 3);
+            fail("Selecting past the end of the list should be rejected.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+
+        try {
+            SortUtility.select(new ArrayList<Integer>(), 0);
+            fail("Selecting from an empty list should be rejected.");
+        }
+        catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testPartialSort() {
+        Random random = new Random();
+        List<Integer> list = randomList(random, 10000, 1000000);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        SortUtility.partialSort(list, 100);
+
+        assertEquals(standardJavaSorted.subList(0, 100), list.subList(0, 100));
+        List<Integer> rest = new ArrayList<Integer>(list.subList(100, list.size()));
+        Collections.sort(rest);
+        assertEquals(standardJavaSorted.subList(100, list.size()), rest);
+    }
+
+    @Test
+    public void testPartialSortWholeList() {
+        Random random = new Random();
+        List<Integer> list = randomList(random, 1000, 1000);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        SortUtility.partialSort(list, list.size());
+
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testTopK() {
+        Random random = new Random();
+        List<Integer> list = randomList(random, 10000, 1000000);
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted.subList(0, 10), SortUtility.topK(list.iterator(), 10));
+        assertEquals(standardJavaSorted.subList(0, 1000), SortUtility.topK(list.iterator(), 1000));
+
+        List<Integer> largest = SortUtility.topK(list.iterator(), Collections.<Integer>reverseOrder(), 10);
+        for (int i = 0; i < 10; i++)
+            assertEquals(standardJavaSorted.get(standardJavaSorted.size() - 1 - i), largest.get(i));
+    }
+
+    @Test
+    public void testTopKShortInput() {
+        List<Integer> list = Arrays.asList(3, 1, 2);
+
+        assertEquals(Arrays.asList(1, 2, 3), SortUtility.topK(list.iterator(), 10));
+        assertEquals(Collections.<Integer>emptyList(), SortUtility.topK(list.iterator(), 0));
+        //The heap only grows as far as the input, so a huge k must not allocate k slots
+        assertEquals(Arrays.asList(1, 2, 3), SortUtility.topK(list.iterator(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testNullAndEmptyList() {
+        try {
+            SortUtility.partialSort((List<Integer>) null, 0);
+            SortUtility.partialSort(new ArrayList<Integer>(), 0);
+            SortUtility.topK(new ArrayList<Integer>().iterator(), 5);
+        }
+        catch (Exception e) {
+            fail("Partially sorting a null or empty list should not throw an exception.");
+        }
+    }
+
+    private static List<Integer> randomList(Random random, int size, int range) {
+        List<Integer> list = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++)
+            list.add(random.nextInt(range));
+        return list;
+    }
+}
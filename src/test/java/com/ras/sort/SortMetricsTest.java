@@ -0,0 +1,299 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import com.ras.sort.bucket.Bucket;
+import com.ras.sort.bucket.IBucketProvider;
+import com.ras.sort.bucket.IIntBucketProvider;
+import com.ras.sort.bucket.IntBucket;
+import com.ras.sort.key.IKeyExtractor;
+import com.ras.sort.metrics.ISortListener;
+import com.ras.sort.metrics.SortMetrics;
+import com.ras.sort.metrics.SortPhase;
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class SortMetricsTest {
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test
+    public void testQuickSortMetrics() {
+        Random random = new Random();
+        List<Integer> quickSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            quickSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.quickSort(quickSorted, NATURAL_ORDER, 0, quickSorted.size() - 1, metrics);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+        assertTrue(metrics.getComparisons() >= quickSorted.size());
+        assertTrue(metrics.getMoves() > 0);
+        assertTrue(metrics.getMaxRecursionDepth() > 0);
+        assertTrue(metrics.getPhaseNanos(SortPhase.SORT) > 0);
+        assertEquals(0, metrics.getPhaseNanos(SortPhase.KEY_SORT));
+    }
+
+    @Test
+    public void testCountMetrics() {
+        Random random = new Random();
+        List<Integer> countSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            countSorted.add(random.nextInt(5));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.count(countSorted, metrics);
+
+        assertEquals(5, metrics.getDistinctKeys());
+        assertEquals(countSorted.size(), metrics.getMoves());
+        assertTrue(metrics.getComparisons() > 0);
+        assertTrue(metrics.getComparisons() < countSorted.size());
+        assertTrue(metrics.getPhaseNanos(SortPhase.COUNT) > 0);
+    }
+
+    @Test
+    public void testInsertionSortMetrics() {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+        SortMetrics metrics = new SortMetrics();
+
+        //A sorted list needs one comparison per element and no moves
+        SortUtility.insertionSort(list, NATURAL_ORDER, metrics);
+
+        assertEquals(99, metrics.getComparisons());
+        assertEquals(0, metrics.getMoves());
+    }
+
+    @Test
+    public void testQuadraticMovesPastIntRange() {
+        //A reversed list shifts every pair once, n(n - 1) / 2 moves, which is more than Integer.MAX_VALUE here
+        int size = 70000;
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = size; i > 0; i--)
+            list.add(i);
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.insertionSort(list, NATURAL_ORDER, metrics);
+
+        assertEquals(Integer.valueOf(1), list.get(0));
+        assertEquals((long) size * (size - 1) / 2, metrics.getMoves());
+        assertTrue(metrics.getMoves() > Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testBubbleSortMetrics() {
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 2, 1));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.bubbleSort(list, NATURAL_ORDER, metrics);
+
+        assertEquals(Arrays.asList(1, 2, 3), list);
+        assertEquals(3, metrics.getMoves());
+        assertEquals(6, metrics.getComparisons());
+    }
+
+    @Test
+    public void testMergeMetricsAccumulateAndReset() {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.merge(list, NATURAL_ORDER, metrics);
+        SortUtility.merge(list, NATURAL_ORDER, metrics);
+
+        assertEquals(198, metrics.getComparisons());
+        assertTrue(metrics.toString().contains("comparisons=198"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getComparisons());
+        assertEquals(0, metrics.getPhaseNanos(SortPhase.SORT));
+    }
+
+    @Test
+    public void testStableCountMetrics() {
+        Random random = new Random();
+        List<Integer> countSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            countSorted.add(random.nextInt(5));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.stableCount(countSorted, metrics);
+
+        assertEquals(5, metrics.getDistinctKeys());
+        assertEquals(countSorted.size(), metrics.getMoves());
+        assertTrue(metrics.getComparisons() > 0);
+        assertTrue(metrics.getPhaseNanos(SortPhase.REWRITE) > 0);
+
+        metrics.reset();
+        SortUtility.stableCount(countSorted, Arrays.asList(4, 3, 2, 1, 0), metrics);
+
+        assertEquals(5, metrics.getDistinctKeys());
+        assertEquals(countSorted.size(), metrics.getMoves());
+        assertEquals(0, metrics.getComparisons());
+        assertEquals(Integer.valueOf(4), countSorted.get(0));
+    }
+
+    @Test
+    public void testOrderedUniquesCountMetrics() {
+        List<Integer> countSorted = new ArrayList<Integer>(Arrays.asList(2, 0, 1, 2, 0));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.count(countSorted, Arrays.asList(2, 1, 0), metrics);
+
+        assertEquals(Arrays.asList(2, 2, 1, 0, 0), countSorted);
+        assertEquals(3, metrics.getDistinctKeys());
+        assertEquals(5, metrics.getMoves());
+
+        //Enum constants are counted by ordinal but report the same events
+        List<SortPhase> phases = new ArrayList<SortPhase>(Arrays.asList(SortPhase.SORT, SortPhase.COPY, SortPhase.SORT));
+        metrics.reset();
+        SortUtility.count(phases, Arrays.asList(SortPhase.SORT, SortPhase.COPY), metrics);
+
+        assertEquals(Arrays.asList(SortPhase.SORT, SortPhase.SORT, SortPhase.COPY), phases);
+        assertEquals(2, metrics.getDistinctKeys());
+        assertEquals(3, metrics.getMoves());
+        assertTrue(metrics.getPhaseNanos(SortPhase.COUNT) > 0);
+    }
+
+    @Test
+    public void testSelectMetrics() {
+        Random random = new Random();
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            list.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+        SortMetrics metrics = new SortMetrics();
+
+        assertEquals(standardJavaSorted.get(5000), SortUtility.select(list, NATURAL_ORDER, 5000, metrics));
+        assertTrue(metrics.getComparisons() >= list.size());
+        assertTrue(metrics.getMoves() > 0);
+        assertTrue(metrics.getMaxRecursionDepth() > 0);
+
+        metrics.reset();
+        SortUtility.partialSort(list, NATURAL_ORDER, 100, metrics);
+
+        assertEquals(standardJavaSorted.subList(0, 100), list.subList(0, 100));
+        assertTrue(metrics.getComparisons() >= list.size());
+        assertTrue(metrics.getPhaseNanos(SortPhase.SORT) > 0);
+    }
+
+    @Test
+    public void testSortByKeyMetrics() {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+        SortMetrics metrics = new SortMetrics();
+
+        //A sorted list needs about one comparison per key, each key is extracted once outside the comparisons
+        SortUtility.sortByKey(list, new IKeyExtractor<Integer, Integer>() {
+            @Override
+            public Integer getKey(Integer item) {
+                return item;
+            }
+        }, NATURAL_ORDER, metrics);
+
+        assertTrue(metrics.getComparisons() >= 99);
+        assertTrue(metrics.getComparisons() < 200);
+        assertTrue(metrics.getPhaseNanos(SortPhase.COPY) > 0);
+    }
+
+    @Test
+    public void testBucketMetrics() {
+        Random random = new Random();
+        List<Cell> cells = new ArrayList<Cell>();
+        for (int i = 0; i < 1000; i++)
+            cells.add(new Cell(random.nextInt(4), random.nextInt(3)));
+        SortMetrics metrics = new SortMetrics();
+
+        SortUtility.intBucket(cells, metrics);
+
+        assertTrue(metrics.getDistinctKeys() <= 12);
+        assertEquals(cells.size(), metrics.getMoves());
+        assertTrue(metrics.getComparisons() > 0);
+
+        List<Region> regions = new ArrayList<Region>();
+        for (int i = 0; i < 1000; i++)
+            regions.add(new Region(random.nextInt(4), random.nextInt(100)));
+        metrics.reset();
+
+        SortUtility.msdBucket(regions, NATURAL_ORDER, metrics);
+
+        Comparator<Bucket<Integer>> bucketComparator = Bucket.lexicographicComparator();
+        for (int i = 1; i < regions.size(); i++)
+            assertTrue(bucketComparator.compare(regions.get(i - 1).getBucket(), regions.get(i).getBucket()) <= 0);
+        assertTrue(metrics.getMoves() >= regions.size());
+        assertTrue(metrics.getComparisons() > 0);
+        assertEquals(1, metrics.getMaxRecursionDepth());
+    }
+
+    @Test
+    public void testNoListener() {
+        Random random = new Random();
+        List<Integer> quickSorted = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+            quickSorted.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(quickSorted);
+
+        SortUtility.quickSort(quickSorted, NATURAL_ORDER, 0, quickSorted.size() - 1, ISortListener.NONE);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(standardJavaSorted, quickSorted);
+    }
+
+    private static class Cell implements IIntBucketProvider {
+        private int m_row;
+        private int m_column;
+
+        public Cell(int row, int column) {
+            m_row = row;
+            m_column = column;
+        }
+
+        @Override
+        public IntBucket getBucket() {
+            return new IntBucket(m_row, m_column);
+        }
+    }
+
+    private static class Region implements IBucketProvider<Integer> {
+        private int m_country;
+        private int m_city;
+
+        public Region(int country, int city) {
+            m_country = country;
+            m_city = city;
+        }
+
+        @Override
+        public Bucket<Integer> getBucket() {
+            return new Bucket<Integer>(m_country, m_city);
+        }
+    }
+}
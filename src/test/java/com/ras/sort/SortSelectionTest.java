@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static junit.framework.TestCase.assertEquals;
+
+public class SortSelectionTest {
+    @Test
+    public void testSmallListUsesInsertion() {
+        List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2));
+
+        assertEquals(SortAlgorithm.INSERTION, SortUtility.sort(list));
+        assertEquals(Arrays.asList(1, 2, 3), list);
+    }
+
+    @Test
+    public void testNearlySortedListUsesMerge() {
+        Random random = new Random(42);
+        List<Integer> sorted = new ArrayList<Integer>();
+        List<Integer> reversed = new LinkedList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            sorted.add(i);
+            reversed.add(100000 - i);
+        }
+        sorted.set(random.nextInt(sorted.size()), -1);
+
+        for (List<Integer> list: Arrays.asList(sorted, reversed)) {
+            List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+            Collections.sort(standardJavaSorted);
+
+            assertEquals(SortAlgorithm.MERGE, SortUtility.sort(list));
+            assertEquals(standardJavaSorted, list);
+        }
+    }
+
+    @Test
+    public void testFewUniquesListUsesCount() {
+        Random random = new Random(42);
+        String[] codes = {"US", "CA", "MX", "GB", "FR"};
+        List<String> list = new ArrayList<String>();
+        for (int i = 0; i < 100000; i++)
+            list.add(codes[random.nextInt(codes.length)]);
+        List<String> standardJavaSorted = new ArrayList<String>(list);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(SortAlgorithm.COUNT, SortUtility.sort(list));
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testFewUniquesWithComparatorUsesQuick() {
+        //A comparator says nothing about equals and hashCode so count sort is never chosen
+        Random random = new Random(42);
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            list.add(random.nextInt(5));
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted, Collections.<Integer>reverseOrder());
+
+        assertEquals(SortAlgorithm.QUICK, SortUtility.sort(list, Collections.<Integer>reverseOrder()));
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testRandomListUsesQuick() {
+        Random random = new Random(42);
+        List<Integer> list = new LinkedList<Integer>();
+        for (int i = 0; i < 100000; i++)
+            list.add(random.nextInt());
+        List<Integer> standardJavaSorted = new ArrayList<Integer>(list);
+        Collections.sort(standardJavaSorted);
+
+        assertEquals(SortAlgorithm.QUICK, SortUtility.sort(list));
+        assertEquals(standardJavaSorted, list);
+    }
+
+    @Test
+    public void testChooseAlgorithmLeavesListAlone() {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+            list.add(1000 - i);
+        List<Integer> original = new ArrayList<Integer>(list);
+
+        assertEquals(SortAlgorithm.MERGE, SortUtility.chooseAlgorithm(list));
+        assertEquals(original, list);
+    }
+
+    @Test
+    public void testNullAndEmptyList() {
+        assertEquals(SortAlgorithm.NONE, SortUtility.sort((List<Integer>) null));
+        assertEquals(SortAlgorithm.NONE, SortUtility.sort(new ArrayList<Integer>()));
+        assertEquals(SortAlgorithm.NONE, SortUtility.chooseAlgorithm(Arrays.asList(1)));
+    }
+}
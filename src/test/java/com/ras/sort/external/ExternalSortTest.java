@@ -0,0 +1,208 @@
+/*
+ * Copyright 2014 Richard So
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ras.sort.external;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.fail;
+import static junit.framework.TestCase.assertEquals;
+
+public class ExternalSortTest {
+    private static final ISerializer<int[]> PAIR_SERIALIZER = new ISerializer<int[]>() {
+        @Override
+        public void write(int[] item, DataOutput output) throws IOException {
+            output.writeInt(item[0]);
+            output.writeInt(item[1]);
+        }
+
+        @Override
+        public int[] read(DataInput input) throws IOException {
+            return new int[] {input.readInt(), input.readInt()};
+        }
+    };
+
+    private static final Comparator<int[]> KEY_COMPARATOR = new Comparator<int[]>() {
+        @Override
+        public int compare(int[] o1, int[] o2) {
+            return o1[0] < o2[0] ? -1 : (o1[0] == o2[0] ? 0 : 1);
+        }
+    };
+
+    @Rule
+    public TemporaryFolder m_folder = new TemporaryFolder();
+
+    @Test
+    public void testMultiPassSortIsStable() throws IOException {
+        Random random = new Random();
+        List<int[]> input = new ArrayList<int[]>();
+        for (int i = 0; i < 10000; i++)
+            input.add(new int[] {random.nextInt(100), i});
+
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, PAIR_SERIALIZER);
+        sort.setRunSize(97);
+        sort.setMergeFanIn(3);
+        sort.setBufferSize(128);
+        sort.setTempDirectory(m_folder.getRoot());
+
+        List<int[]> externalSorted = new ArrayList<int[]>();
+        ExternalSortResult<int[]> result = sort.sort(input.iterator());
+        while (result.hasNext())
+            externalSorted.add(result.next());
+
+        //Collections.sort is stable so equal keys stay in the order of their second value
+        List<int[]> standardJavaSorted = new ArrayList<int[]>(input);
+        Collections.sort(standardJavaSorted, KEY_COMPARATOR);
+
+        assertEquals(standardJavaSorted.size(), externalSorted.size());
+        for (int i = 0; i < standardJavaSorted.size(); i++) {
+            assertEquals(standardJavaSorted.get(i)[0], externalSorted.get(i)[0]);
+            assertEquals(standardJavaSorted.get(i)[1], externalSorted.get(i)[1]);
+        }
+        assertEquals("Every run should be deleted", 0, m_folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testInMemorySort() throws IOException {
+        List<int[]> input = Arrays.asList(new int[] {3, 0}, new int[] {1, 1}, new int[] {2, 2});
+
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, PAIR_SERIALIZER);
+        sort.setTempDirectory(m_folder.getRoot());
+        ExternalSortResult<int[]> result = sort.sort(input.iterator());
+
+        assertEquals(0, m_folder.getRoot().list().length);
+        assertEquals(1, result.next()[0]);
+        assertEquals(2, result.next()[0]);
+        assertEquals(3, result.next()[0]);
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void testCloseDeletesRuns() throws IOException {
+        List<int[]> input = new ArrayList<int[]>();
+        for (int i = 0; i < 100; i++)
+            input.add(new int[] {100 - i, i});
+
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, PAIR_SERIALIZER);
+        sort.setRunSize(10);
+        sort.setTempDirectory(m_folder.getRoot());
+        ExternalSortResult<int[]> result = sort.sort(input.iterator());
+
+        assertEquals(1, result.next()[0]);
+        result.close();
+
+        assertEquals(0, m_folder.getRoot().list().length);
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void testFailingComparatorDeletesRuns() throws IOException {
+        List<int[]> input = new ArrayList<int[]>();
+        for (int i = 0; i < 64; i++)
+            input.add(new int[] {64 - i, i});
+
+        //Fail after every number of comparisons so the sort is interrupted while spilling, merging and reading
+        for (int limit = 0; limit < 1000; limit += 7) {
+            final int failAfter = limit;
+            Comparator<int[]> failing = new Comparator<int[]>() {
+                private int m_compared;
+
+                @Override
+                public int compare(int[] o1, int[] o2) {
+                    if (m_compared++ == failAfter)
+                        throw new IllegalStateException();
+                    return KEY_COMPARATOR.compare(o1, o2);
+                }
+            };
+
+            ExternalSort<int[]> sort = new ExternalSort<int[]>(failing, PAIR_SERIALIZER);
+            sort.setRunSize(4);
+            sort.setMergeFanIn(2);
+            sort.setTempDirectory(m_folder.getRoot());
+            try {
+                ExternalSortResult<int[]> result = sort.sort(input.iterator());
+                while (result.hasNext())
+                    result.next();
+            }
+            catch (IllegalStateException e) {
+                //Expected whenever the comparator fails before the last item is read
+            }
+
+            assertEquals(0, m_folder.getRoot().list().length);
+        }
+    }
+
+    @Test
+    public void testFailingSerializerDeletesRuns() throws IOException {
+        List<int[]> input = new ArrayList<int[]>();
+        for (int i = 0; i < 64; i++)
+            input.add(new int[] {64 - i, i});
+
+        ISerializer<int[]> failing = new ISerializer<int[]>() {
+            private int m_written;
+
+            @Override
+            public void write(int[] item, DataOutput output) throws IOException {
+                if (m_written++ == 40)
+                    throw new IllegalStateException();
+                PAIR_SERIALIZER.write(item, output);
+            }
+
+            @Override
+            public int[] read(DataInput input) throws IOException {
+                return PAIR_SERIALIZER.read(input);
+            }
+        };
+
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, failing);
+        sort.setRunSize(4);
+        sort.setMergeFanIn(2);
+        sort.setTempDirectory(m_folder.getRoot());
+        try {
+            sort.sort(input.iterator());
+            fail("The serializer should have failed while spilling or merging the runs");
+        }
+        catch (IllegalStateException e) {
+            assertEquals(0, m_folder.getRoot().list().length);
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, PAIR_SERIALIZER);
+
+        assertFalse(sort.sort(new ArrayList<int[]>().iterator()).hasNext());
+    }
+
+    @Test
+    public void testInvalidFanIn() {
+        ExternalSort<int[]> sort = new ExternalSort<int[]>(KEY_COMPARATOR, PAIR_SERIALIZER);
+        try {
+            sort.setMergeFanIn(1);
+            fail("A merge fan in of one should throw an exception");
+        }
+        catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+}